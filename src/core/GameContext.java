@@ -0,0 +1,310 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+import core.card.Card;
+import core.card.Card.Suit;
+import core.card.Hand;
+import core.card.PlayerCard;
+import core.card.ShuffleStreams;
+import core.card.VoidTracker;
+import core.player.HumanPlayer;
+import core.player.PlayerQueue;
+import util.GameClock;
+
+/**
+ * The state shared by everything at one table. Each game gets its own
+ * context, so any number of tables can run side by side.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class GameContext {
+
+	// true if the table runs without animation, images, sound or timers
+	private final boolean headless;
+
+	// true if a headless table still waits out display and decision times, by sleeping
+	private boolean paced;
+
+	// true if a headless table waits out times by reporting when it next needs to run
+	private boolean scheduled;
+
+	// the time on the clock the table is waiting for, or 0 if it is ready to run
+	private long wakeTime;
+
+	// the clock every timer at this table reads
+	private GameClock clock = GameClock.SYSTEM;
+
+	// total time this table has asked to sleep for, and actually slept for
+	private long pausedNanos;
+	private long sleptNanos;
+
+	// the players at the table
+	private PlayerQueue players;
+
+	// the round keeper running the table
+	private RoundKeeper round;
+
+	// the human player, null for tables of computer players only
+	private HumanPlayer human;
+
+	// the cards played in the current trick, in the order they were played
+	private ArrayList<PlayerCard> playedCards;
+
+	// every card played this hand, see Hand
+	private long cardsPlayed;
+
+	// what the cards played this hand prove about each seat's hand
+	private final VoidTracker voids = new VoidTracker();
+
+	// the card turned up after dealing, and the trump suit it sets
+	private Card topCard;
+	private Suit trumpSuit;
+
+	// flag indicating if all players have submitted a bid
+	private boolean allPlayersBid;
+
+	// the seed and table number deals are derived from, if the table is seeded
+	private boolean seeded;
+	private long seed;
+	private long table;
+
+	/**
+	 * Constructor for a table with animation, images and sound.
+	 */
+	public GameContext() {
+		this(false);
+	}
+
+	/**
+	 * Constructor
+	 * @param headless true to run the table without animation, images, sound or timers
+	 */
+	public GameContext(boolean headless) {
+		this.headless = headless;
+		this.playedCards = new ArrayList<PlayerCard>();
+	}
+
+	public boolean isHeadless() {
+		return headless;
+	}
+
+	public boolean isPaced() {
+		return paced;
+	}
+
+	/**
+	 * Makes a headless table wait out the display and decision times by 
+	 * sleeping the thread running it, rather than skipping them.
+	 * @param paced true to sleep through waits
+	 */
+	public void setPaced(boolean paced) {
+		this.paced = paced;
+	}
+
+	public boolean isScheduled() {
+		return scheduled;
+	}
+
+	/**
+	 * Makes a headless table keep its display and decision timers on its 
+	 * clock, like an animated table, but without sleeping. An update that 
+	 * has to wait returns at once and sets the wake time, so a host can 
+	 * set the table aside until then.
+	 * @param scheduled true to report waits rather than sleep through them
+	 */
+	public void setScheduled(boolean scheduled) {
+		this.scheduled = scheduled;
+	}
+
+	/**
+	 * @return the time on the table's clock it is waiting for, or 0 if it is ready to run
+	 */
+	public long getWakeTime() {
+		return wakeTime;
+	}
+
+	/**
+	 * Records when the table next needs to run. Set by timers that are 
+	 * still waiting, and cleared at the start of each update.
+	 * @param wakeTime the time on the table's clock, or 0 if the table is ready to run
+	 */
+	public void setWakeTime(long wakeTime) {
+		this.wakeTime = wakeTime;
+	}
+
+	public GameClock getClock() {
+		return clock;
+	}
+
+	/**
+	 * Sets the clock the table's timers read, such as a faster clock to 
+	 * watch computer players at speed.
+	 * @param clock the clock
+	 */
+	public void setClock(GameClock clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 * Sleeps the thread running this table for a time on the table's clock. 
+	 * If the thread is interrupted the sleep ends early and the interrupt 
+	 * flag is kept, so the caller's loop can stop.
+	 * @param millis the time to sleep
+	 */
+	public void pause(long millis) {
+		pausedNanos += millis * 1000000L;
+		long start = System.nanoTime();
+		try {
+			clock.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		sleptNanos += System.nanoTime() - start;
+	}
+
+	/**
+	 * @return the total time this table has asked to sleep for, in nanoseconds
+	 */
+	public long getPausedNanos() {
+		return pausedNanos;
+	}
+
+	/**
+	 * @return the total time this table has actually slept for, in nanoseconds
+	 */
+	public long getSleptNanos() {
+		return sleptNanos;
+	}
+
+	/**
+	 * Seeds the table, so every deal can be replayed from the seed, 
+	 * the table number and the hand number.
+	 * @param seed the seed
+	 * @param table the table number
+	 */
+	public void setSeed(long seed, long table) {
+		this.seeded = true;
+		this.seed = seed;
+		this.table = table;
+	}
+
+	public boolean isSeeded() {
+		return seeded;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public long getTable() {
+		return table;
+	}
+
+	/**
+	 * @return the generator for choices made once per table, such as the first dealer
+	 */
+	public SplittableRandom getTableRandom() {
+		return seeded ? ShuffleStreams.forTable(seed, table) : new SplittableRandom();
+	}
+
+	/**
+	 * @param hand the hand number, starting at 0
+	 * @return the generator used to shuffle the given hand
+	 */
+	public SplittableRandom getHandRandom(int hand) {
+		return seeded ? ShuffleStreams.forHand(seed, table, hand) : new SplittableRandom();
+	}
+
+	public PlayerQueue getPlayers() {
+		return players;
+	}
+
+	public void setPlayers(PlayerQueue players) {
+		this.players = players;
+	}
+
+	public RoundKeeper getRound() {
+		return round;
+	}
+
+	public void setRound(RoundKeeper round) {
+		this.round = round;
+	}
+
+	public HumanPlayer getHuman() {
+		return human;
+	}
+
+	public void setHuman(HumanPlayer human) {
+		this.human = human;
+	}
+
+	/**
+	 * @return the cards played in the current trick
+	 */
+	public ArrayList<PlayerCard> getPlayedCards() {
+		return playedCards;
+	}
+
+	/**
+	 * Plays a card to the current trick.
+	 * @param card the card
+	 */
+	public void addPlayedCard(PlayerCard card) {
+		playedCards.add(card);
+		cardsPlayed |= Hand.bit(card.getId());
+	}
+
+	/**
+	 * @return every card played this hand, including the current trick
+	 */
+	public long getCardsPlayed() {
+		return cardsPlayed;
+	}
+
+	/**
+	 * Starts a new, empty trick.
+	 */
+	public void clearPlayedCards() {
+		playedCards = new ArrayList<PlayerCard>();
+	}
+
+	/**
+	 * @return the voids and cards played of each seat this hand, kept up
+	 * to date by PlayerQueue.playCards
+	 */
+	public VoidTracker getVoidTracker() {
+		return voids;
+	}
+
+	public Card getTopCard() {
+		return topCard;
+	}
+
+	/**
+	 * Sets the card turned up after dealing, which decides the trump suit
+	 * and starts a new hand.
+	 * @param topCard the top card
+	 */
+	public void setTopCard(Card topCard) {
+		this.cardsPlayed = 0;
+		this.voids.clear();
+		this.topCard = topCard;
+		this.trumpSuit = topCard.getSuit();
+	}
+
+	public Suit getTrumpSuit() {
+		return trumpSuit;
+	}
+
+	public boolean isAllPlayersBid() {
+		return allPlayersBid;
+	}
+
+	public void setAllPlayersBid(boolean allPlayersBid) {
+		this.allPlayersBid = allPlayersBid;
+	}
+}
@@ -11,15 +11,14 @@ import java.util.Iterator;
 
 import javax.imageio.ImageIO;
 
+import core.ai.ClaimCheck;
 import core.card.Card;
-import core.card.Card.Suit;
 import core.card.CardComparator;
 import core.card.Deck;
 import core.card.PlayerCard;
 import core.card.ShuffleAnimation;
 import core.player.Player;
 import core.player.PlayerQueue;
-import game.gameState.PlayState;
 import game.main.MainCanvas;
 
 /**
@@ -34,16 +33,16 @@ public class RoundKeeper {
 	// number of cards at the beginning
 	private static final int NUM_CARDS_AT_START = 1;
 	
-	// time to wait when selecting winner (for suspense)
-	private static final int WINNER_SELECT_TIME = 1;
+	// time to wait when selecting winner (for suspense), in milliseconds
+	private static final long WINNER_SELECT_TIME = 2000;
 	
 	// time to display winner
-	private static final int WINNER_DISPLAY_TIME = 2;
+	private static final long WINNER_DISPLAY_TIME = 3000;
 	
 	// time to display results of a hand
-	private static final int HAND_OVER_DISPLAY_TIME = 3;
+	private static final long HAND_OVER_DISPLAY_TIME = 4000;
 	
-	private static final int GAME_OVER_DISPLAY_TIME = 10;
+	private static final long GAME_OVER_DISPLAY_TIME = 11000;
 	
 	// player queue
 	private PlayerQueue players;
@@ -51,15 +50,15 @@ public class RoundKeeper {
 	// cards per player
 	private int cardsPerPlayer;
 	
+	// the number of hands dealt so far
+	private int handNumber;
+	
 	// the deck of cards
 	private Deck deck;
 		
 	// shuffle animation
 	private ShuffleAnimation animation;
 	
-	// flag indicating if all players have submitted a bid TODO make non-static
-	private static boolean allPlayersBid;
-	
 	// flag indicating whether all players have played a card
 	private boolean allCardsPlayed;
 	
@@ -84,9 +83,6 @@ public class RoundKeeper {
 	// true if human player won a trick
 	private boolean playerWon;
 	
-	// the trump suit
-	private static Suit trumpSuit; // TODO make non-static
-	
 	// timer start
 	private long timerStart;
 	
@@ -98,65 +94,116 @@ public class RoundKeeper {
 	
 	private Player gameWinner;
 	
+	// the table this round is played at
+	private GameContext context;
+	
+	// true if the round runs without animation, images, sound or display timers
+	private boolean headless;
+	
+	// true to skip the rest of a hand once its tricks are decided, and the hands skipped
+	private boolean claimsEnabled = true;
+	private int claims;
+	
 	/**
-	 * Constructor
-	 * @param players the queue of player objects
+	 * Constructor. A headless context skips animation, images, sound and 
+	 * display timers, so a whole game can be simulated as fast as possible.
+	 * @param context the table, with its queue of players already seated
 	 */
-	public RoundKeeper(PlayerQueue players) {
-		this.players = players;
+	public RoundKeeper(GameContext context) {
+		this.context = context;
+		this.players = context.getPlayers();
 		this.cardsPerPlayer = NUM_CARDS_AT_START;
+		this.headless = context.isHeadless();
+		context.setRound(this);
 		
-		try {
-			trickWon = ImageIO.read(getClass().getResourceAsStream("/images/trickWonText.png"));
-		} catch (IOException e) {
-			e.printStackTrace();
+		if (!headless) {
+			try {
+				trickWon = ImageIO.read(getClass().getResourceAsStream("/images/trickWonText.png"));
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			winnerFont = new Font("Serif", Font.BOLD, 26);
 		}
 		
 		// init all flags
 		dealerDecreasing = true;
-		winnerFont = new Font("Serif", Font.BOLD, 26);
+		deck = new Deck();
 		
 		// init deck and deal
 		dealCards();
 	}
 	
 	public void dealCards() {
-		deck = new Deck();
-		deck.shuffle();
+		deck.reset();
+		deck.shuffle(context.getHandRandom(handNumber++));
 
 		// init the shuffle animation object
-		int x = players.getDealer().getNameTag().getPosX() + 
-				players.getDealer().getNameTag().getWidth() / 2;
-		int y;
-		if (players.getDealer().equals(players.getUser())) {
-			y = +600;
-		} else {
-			y = -100;
+		if (!headless) {
+			int x = players.getDealer().getNameTag().getPosX() + 
+					players.getDealer().getNameTag().getWidth() / 2;
+			int y;
+			if (players.getDealer().equals(players.getUser())) {
+				y = +600;
+			} else {
+				y = -100;
+			}
+			animation = new ShuffleAnimation(x, y, cardsPerPlayer, players, this);
 		}
-		animation = new ShuffleAnimation(x, y, cardsPerPlayer, players, this);
 		
-		// deal user cards
+		// deal every hand, then turn up the top card
+		int topCard = players.giveCards(deck, cardsPerPlayer);
+		context.setTopCard(Card.fromId(topCard));
+	}
+	
+	/**
+	 * Takes back the hand just dealt and deals the given one in its place, 
+	 * for replaying a deal stored by DealCodec. Only sensible before any 
+	 * seat has bid.
+	 * @param hands each seat's hand, indexed by seat, all the same size
+	 * @param topCard the id of the top card
+	 */
+	public void redeal(long[] hands, int topCard) {
+		Player[] order = players.getPlayers();
+		long[] stacked = new long[order.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i].clearHand();
+			stacked[i] = hands[order[i].getIndex()];
+		}
+		cardsPerPlayer = Long.bitCount(hands[0]);
+		deck.arrange(stacked, topCard);
 		players.giveCards(deck, cardsPerPlayer);
-
-		// init top card
-		Card topCard = deck.dealCard();
-		PlayState.topCardImage = topCard.getImage();
-		trumpSuit = topCard.getSuit();
+		context.setTopCard(Card.fromId(topCard));
+	}
+	
+	/**
+	 * Plays the game through to the end. Only sensible for headless rounds,
+	 * where every call to update() makes progress.
+	 */
+	public void playGame() {
+		while (!gameOver) {
+			update();
+		}
 	}
 
 	public void update() {
+		context.setWakeTime(0);
 		
 		// update the player objects
-		players.update();
+		if (!headless) {
+			players.update();
+		}
 		
 		// if dealing cards, update the animation
-		if (animation.isDealing()) {
+		if (isDealingCards()) {
 			animation.update();
 		} 
 		
 		// if bids are not made, make bids
-		else if (!allPlayersBid) { 
+		else if (!context.isAllPlayersBid()) { 
 			players.updateBids(); 
+			if (context.isAllPlayersBid() && claimRemainingTricks()) {
+				endHand();
+			}
 		} 
 		
 		// if each player has not played a card, update cards
@@ -165,80 +212,51 @@ public class RoundKeeper {
 			allCardsPlayed = players.isAllCardsPlayed();
 			if (allCardsPlayed) {
 				selectingWinner = true;
-				timerStart = System.currentTimeMillis();
+				startTimer();
 			}
 		}
 		
 		else if (selectingWinner) {
 			// wait to select winner
-			if ((System.currentTimeMillis() - timerStart) / 1000 > WINNER_SELECT_TIME) {
+			if (isTimerDone(WINNER_SELECT_TIME)) {
 				selectingWinner = false;
 				displayingWinner = true;
 				// determine winner
-				ArrayList<PlayerCard> playedCards = PlayerQueue.getPlayedCards();
-				PlayerCard winningCard = CardComparator.determineWinner(PlayerQueue.getPlayedCards(), trumpSuit);
-				Iterator<PlayerCard> it = playedCards.iterator();
-				while (it.hasNext()) {
-					it.next().setHome(winningCard.getPlayer().getHome().x, 
-									  winningCard.getPlayer().getHome().y);
-				}
-				if (winningCard.getPlayer().equals(players.getUser())) {
-					playerWon = true;
-				}
+				ArrayList<PlayerCard> playedCards = context.getPlayedCards();
+				PlayerCard winningCard = CardComparator.determineWinner(playedCards, context.getTrumpSuit());
 				
 				// add to their score
 				winningCard.getPlayer().addTrick();
 				
-				// format the display string
-				String won;
-				boolean trump = false;
-				
-				// if the winning card is the same as the trump suit but not the same suit as the first card
-				if (CardComparator.isSameSuit(winningCard, trumpSuit) 
-						&& !CardComparator.isSameSuit(winningCard, PlayerQueue.getPlayedCards().get(0).getSuit())) {
-					// the card is a trump card
-					trump = true;
-				}
-				if (trump) {
-					won = " trumped";
-				} else {
-					won = " won";
+				if (!headless) {
+					Iterator<PlayerCard> it = playedCards.iterator();
+					while (it.hasNext()) {
+						it.next().setHome(winningCard.getPlayer().getHome().x, 
+										  winningCard.getPlayer().getHome().y);
+					}
+					if (winningCard.getPlayer().equals(players.getUser())) {
+						playerWon = true;
+					}
+					winnerString = formatWinner(winningCard);
 				}
-				String s = winningCard.getPlayer().getName() + won + " with " +
-						winningCard.getCardName();
-				winnerString = s;
 				
 				// winner has next turn
 				players.setTurn(winningCard.getPlayer());
 				
 				// start timer for displaying winner
-				timerStart = System.currentTimeMillis();
+				startTimer();
 			}
 		} else  if (displayingWinner){	
-			PlayerQueue.updatePlayedCards();
-			if ((System.currentTimeMillis() - timerStart) / 1000 > WINNER_DISPLAY_TIME) {
+			if (!headless) {
+				players.updatePlayedCards();
+			}
+			if (isTimerDone(WINNER_DISPLAY_TIME)) {
 				displayingWinner = false;
 				players.initNextTrick();
 				
-				// check if hand is empty
-				if (players.isHandEmpty()) {
-					
-					displayingHandOver = true;
-					
-					// start time for displaying results of hand
-					timerStart = System.currentTimeMillis();
-					
-					// toggle dealer decreasing
-					if (cardsPerPlayer <= 1) {
-						dealerDecreasing = false;
-					}
-					players.getUser().playEndHandSound();
-					
-					if (dealerDecreasing) {
-						cardsPerPlayer -= 1;
-					} else {
-						cardsPerPlayer += 1;
-					}
+				// check if hand is empty, or the rest of it is already decided
+				if (players.isHandEmpty() || claimRemainingTricks()) {
+					endHand();
 					
 				// hand is not empty, get ready for next trick
 				} else {
@@ -248,23 +266,29 @@ public class RoundKeeper {
 				}
 			}
 		} else if (displayingHandOver) {
-			if ((System.currentTimeMillis() - timerStart) / 1000 > HAND_OVER_DISPLAY_TIME) {
+			if (isTimerDone(HAND_OVER_DISPLAY_TIME)) {
 				displayingHandOver = false;
 				// if game complete
 				if (cardsPerPlayer >= 9 && !dealerDecreasing) {
-					timerStart = System.currentTimeMillis();
+					startTimer();
 					displayingGameOver = true;
 					players.updateScores();
 					players.resetBids();
 					gameWinner = players.getWinner();
-					System.out.println("Game complete");
+					if (headless) {
+						// nothing to display, the final scores stand
+						displayingGameOver = false;
+						gameOver = true;
+					} else {
+						System.out.println("Game complete");
+					}
 				} else {
 					nextTrick();
 					handOver();
 				}
 			}
 		} else if (displayingGameOver) {			
-			if ((System.currentTimeMillis() - timerStart) / 1000 > GAME_OVER_DISPLAY_TIME) {
+			if (isTimerDone(GAME_OVER_DISPLAY_TIME)) {
 				System.out.println("GAME OVER!!");
 				gameOver = true;
 				nextTrick();
@@ -276,6 +300,131 @@ public class RoundKeeper {
 		}
 	}
 	
+	/**
+	 * Shows the results of a hand that has been played out, and gets 
+	 * ready for the next hand.
+	 */
+	private void endHand() {
+		// nothing is left to play this hand
+		allCardsPlayed = true;
+		displayingHandOver = true;
+		
+		// start time for displaying results of hand
+		startTimer();
+		
+		// toggle dealer decreasing
+		if (cardsPerPlayer <= 1) {
+			dealerDecreasing = false;
+		}
+		if (!headless) {
+			players.getUser().playEndHandSound();
+		}
+		
+		if (dealerDecreasing) {
+			cardsPerPlayer -= 1;
+		} else {
+			cardsPerPlayer += 1;
+		}
+	}
+	
+	/**
+	 * At the start of a trick, checks whether the rest of the hand can 
+	 * only go one way. If so, gives each player the tricks they were 
+	 * sure to take and empties every hand.
+	 * @return true if the remaining tricks were claimed
+	 */
+	private boolean claimRemainingTricks() {
+		if (!claimsEnabled) {
+			return false;
+		}
+		Player[] order = players.getPlayers();
+		long[] hands = new long[order.length];
+		for (int i = 0; i < order.length; i++) {
+			hands[i] = order[i].getHandMask();
+		}
+		// the player whose turn it is leads
+		int[] tricks = ClaimCheck.resolve(hands, 0, context.getTrumpSuit().getValue());
+		if (tricks == null) {
+			return false;
+		}
+		for (int i = 0; i < order.length; i++) {
+			for (int t = 0; t < tricks[i]; t++) {
+				order[i].addTrick();
+			}
+			order[i].clearHand();
+		}
+		claims++;
+		return true;
+	}
+	
+	/**
+	 * Turns claiming on or off. When off, every hand is played out to the 
+	 * last card.
+	 * @param claimsEnabled true to claim decided tricks
+	 */
+	public void setClaimsEnabled(boolean claimsEnabled) {
+		this.claimsEnabled = claimsEnabled;
+	}
+	
+	/**
+	 * @return the number of hands finished early by a claim
+	 */
+	public int getClaims() {
+		return claims;
+	}
+	
+	/**
+	 * Formats the message shown when a trick is won.
+	 * @param winningCard the card that won the trick
+	 * @return the display string
+	 */
+	private String formatWinner(PlayerCard winningCard) {
+		String won;
+		boolean trump = false;
+		
+		// if the winning card is the same as the trump suit but not the same suit as the first card
+		if (CardComparator.isSameSuit(winningCard.getCard(), context.getTrumpSuit()) 
+				&& !CardComparator.isSameSuit(winningCard.getCard(), context.getPlayedCards().get(0).getSuit())) {
+			// the card is a trump card
+			trump = true;
+		}
+		if (trump) {
+			won = " trumped";
+		} else {
+			won = " won";
+		}
+		return winningCard.getPlayer().getName() + won + " with " +
+				winningCard.getCardName();
+	}
+	
+	private void startTimer() {
+		if (!headless || context.isScheduled()) {
+			timerStart = context.getClock().millis();
+		}
+	}
+	
+	/**
+	 * Checks if the display timer has run for the given time on the 
+	 * table's clock. Headless rounds never wait, unless they are paced, 
+	 * in which case they sleep for the time instead, or scheduled, in 
+	 * which case they poll the timer and report when it will be done.
+	 * @param millis the display time
+	 * @return true if the timer is done
+	 */
+	private boolean isTimerDone(long millis) {
+		if (headless && !context.isScheduled()) {
+			if (context.isPaced()) {
+				context.pause(millis);
+			}
+			return true;
+		}
+		if (context.getClock().millis() - timerStart >= millis) {
+			return true;
+		}
+		context.setWakeTime(timerStart + millis);
+		return false;
+	}
+	
 	private void nextTrick() {
 		// get ready for next trick
 		allCardsPlayed = false;
@@ -284,29 +433,30 @@ public class RoundKeeper {
 	}
 	
 	private void handOver() {
-		allPlayersBid = false;
+		context.setAllPlayersBid(false);
 		players.updateScores();
 		players.resetBids();
 		dealCards();
 	}
 	
-	public static Suit getTrumpSuit() {
-		return trumpSuit;
-	}
-	
 	/**
 	 * @return number of cards per player
 	 */
 	public int getCardsPerPlayer() {
 		return cardsPerPlayer;
 	}
-
-	public static void setIsAllPlayersBid(boolean b) {
-		allPlayersBid = b;
-	}
 	
+	/**
+	 * @return the number of hands dealt so far, including the current one
+	 */
+	public int getHandNumber() {
+		return handNumber;
+	}
+
 	public void setDealingCards(boolean t) {
-		animation.setDealing(t);
+		if (animation != null) {
+			animation.setDealing(t);
+		}
 	}
 
 	public void drawShuffling(Graphics g) {
@@ -316,7 +466,7 @@ public class RoundKeeper {
 	}
 
 	public boolean isDealingCards() {
-		return animation.isDealing();
+		return animation != null && animation.isDealing();
 	}
 	
 	public boolean isDisplayingWinner() {
@@ -370,6 +520,10 @@ public class RoundKeeper {
 		g.drawString(gameWinner.getName() + " won the game!", 50, 100);
 	}
 
+	public boolean isHeadless() {
+		return headless;
+	}
+
 	public void skipDealing() {
 		animation.setDealing(false);
 		animation.skipPositions();
@@ -0,0 +1,251 @@
+package core.ai;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import core.card.Card.FaceValue;
+import core.card.Hand;
+
+/**
+ * Bids looked up from a table built offline, see core.sim.BidTableBuilder.
+ * Hands are reduced to a few features: the number of cards, high and low
+ * trumps, aces and kings in the side suits, the seat's place in the
+ * bidding and how far the bids so far are above or below an even share.
+ * For each combination the table holds the odds of taking each number of
+ * tricks, and the best bid is worked out from those odds once, when the
+ * table is loaded, along with the next best for a dealer who may not
+ * make the best. A bid is then an array lookup.
+ *
+ * The table is a gzipped file of odds, a byte each, read into arrays at
+ * startup from the classpath. Combinations seen too rarely to trust, and
+ * hands larger than the table covers, have no entry.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public final class BidTable {
+
+	// where the table is kept on the classpath
+	public static final String RESOURCE = "/files/bids.bin";
+
+	// the largest hand the table covers, and so the most tricks
+	public static final int MAX_HAND_SIZE = 9;
+	public static final int ODDS_PER_ENTRY = MAX_HAND_SIZE + 1;
+
+	// identifies a table file, and the layout it was written with
+	private static final int MAGIC = 0x4F484254;
+	private static final int VERSION = 1;
+
+	// trumps from the jack up count as high
+	private static final long HIGH_FACES = Hand.faceMask(FaceValue.JACK.getValue())
+			| Hand.faceMask(FaceValue.QUEEN.getValue()) | Hand.faceMask(FaceValue.KING.getValue())
+			| Hand.faceMask(FaceValue.ACE.getValue());
+
+	// the number of values of each feature, larger counts sharing the last
+	private static final int HIGH_TRUMPS = 5;
+	private static final int LOW_TRUMPS = 4;
+	private static final int SIDE_ACES = 4;
+	private static final int SIDE_KINGS = 3;
+	private static final int POSITIONS = CompactState.MAX_SEATS;
+	private static final int PRESSURES = 5;
+
+	public static final int ENTRIES = MAX_HAND_SIZE * HIGH_TRUMPS * LOW_TRUMPS * SIDE_ACES * SIDE_KINGS
+			* POSITIONS * PRESSURES;
+
+	// marks an entry with no odds
+	private static final byte NO_BID = -1;
+
+	// the odds of each trick count, out of 255, ODDS_PER_ENTRY to an entry
+	private final byte[] odds;
+
+	// the best bid of each entry and the next best, worked out from the odds
+	private final byte[] best;
+	private final byte[] secondBest;
+
+	private static final class DefaultHolder {
+		private static final BidTable TABLE = loadDefault();
+	}
+
+	/**
+	 * Constructor
+	 * @param odds the odds of each trick count, ODDS_PER_ENTRY to an entry, all
+	 * zero where there are none
+	 */
+	public BidTable(byte[] odds) {
+		if (odds.length != ENTRIES * ODDS_PER_ENTRY) {
+			throw new IllegalArgumentException("expected " + ENTRIES * ODDS_PER_ENTRY + " odds, got " + odds.length);
+		}
+		this.odds = odds;
+		this.best = new byte[ENTRIES];
+		this.secondBest = new byte[ENTRIES];
+		for (int i = 0; i < ENTRIES; i++) {
+			rankBids(i);
+		}
+	}
+
+	/**
+	 * @return the table on the classpath, loaded on first use, or an empty
+	 * table if it is missing or unreadable
+	 */
+	public static BidTable getDefault() {
+		return DefaultHolder.TABLE;
+	}
+
+	private static BidTable loadDefault() {
+		InputStream in = BidTable.class.getResourceAsStream(RESOURCE);
+		if (in == null) {
+			System.err.println("No bid table at " + RESOURCE + ", bidding by heuristic");
+			return new BidTable(new byte[ENTRIES * ODDS_PER_ENTRY]);
+		}
+		try (InputStream stream = in) {
+			return read(stream);
+		} catch (IOException e) {
+			e.printStackTrace();
+			return new BidTable(new byte[ENTRIES * ODDS_PER_ENTRY]);
+		}
+	}
+
+	/**
+	 * Reads a table written by write.
+	 * @param in the stream, which is left open
+	 * @return the table
+	 * @throws IOException if the stream can't be read or is not a table
+	 */
+	public static BidTable read(InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(new GZIPInputStream(new BufferedInputStream(in)));
+		if (data.readInt() != MAGIC) {
+			throw new IOException("not a bid table");
+		}
+		int version = data.readInt();
+		if (version != VERSION) {
+			throw new IOException("unknown bid table version " + version);
+		}
+		int entries = data.readInt();
+		int perEntry = data.readInt();
+		if (entries != ENTRIES || perEntry != ODDS_PER_ENTRY) {
+			throw new IOException("bid table has " + entries + " entries of " + perEntry + ", expected "
+					+ ENTRIES + " of " + ODDS_PER_ENTRY);
+		}
+		byte[] odds = new byte[ENTRIES * ODDS_PER_ENTRY];
+		data.readFully(odds);
+		return new BidTable(odds);
+	}
+
+	/**
+	 * Writes the table in the layout read expects.
+	 * @param out the stream, which is left open
+	 * @throws IOException if the stream can't be written
+	 */
+	public void write(OutputStream out) throws IOException {
+		GZIPOutputStream zip = new GZIPOutputStream(out);
+		DataOutputStream data = new DataOutputStream(zip);
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeInt(ENTRIES);
+		data.writeInt(ODDS_PER_ENTRY);
+		data.write(odds);
+		data.flush();
+		zip.finish();
+	}
+
+	/**
+	 * Works out the entry of a hand at bidding time.
+	 * @param hand the hand, see Hand
+	 * @param trump the trump suit value
+	 * @param position the seat's place in the bidding, from 0 for the dealer's left
+	 * @param seats the number of seats
+	 * @param totalBids the sum of the bids made before this one
+	 * @return the entry, or -1 if the table doesn't cover the hand
+	 */
+	public static int entry(long hand, int trump, int position, int seats, int totalBids) {
+		int handSize = Hand.count(hand);
+		if (handSize < 1 || handSize > MAX_HAND_SIZE || seats > POSITIONS) {
+			return -1;
+		}
+		long trumps = hand & Hand.suitMask(trump);
+		int highTrumps = Hand.count(trumps & HIGH_FACES);
+		int lowTrumps = Hand.count(trumps) - highTrumps;
+		int sideAces = Hand.count(hand & ~trumps & Hand.faceMask(FaceValue.ACE.getValue()));
+		int sideKings = Hand.count(hand & ~trumps & Hand.faceMask(FaceValue.KING.getValue()));
+
+		// bids above an even share of the tricks so far mean the others want more of them
+		int excess = totalBids * seats - position * handSize;
+		int pressure = Math.round((float) excess / seats);
+
+		int i = handSize - 1;
+		i = i * HIGH_TRUMPS + highTrumps;
+		i = i * LOW_TRUMPS + Math.min(lowTrumps, LOW_TRUMPS - 1);
+		i = i * SIDE_ACES + Math.min(sideAces, SIDE_ACES - 1);
+		i = i * SIDE_KINGS + Math.min(sideKings, SIDE_KINGS - 1);
+		i = i * POSITIONS + position;
+		i = i * PRESSURES + Math.max(0, Math.min(PRESSURES - 1, pressure + PRESSURES / 2));
+		return i;
+	}
+
+	/**
+	 * Looks up a bid.
+	 * @param entry the hand's entry, see entry
+	 * @param forbidden the bid the seat may not make, or -1
+	 * @return the bid with the best expected score, or -1 if the table has
+	 * no odds for the entry
+	 */
+	public int bid(int entry, int forbidden) {
+		if (entry < 0) {
+			return NO_BID;
+		}
+		int bid = best[entry];
+		return bid == forbidden ? secondBest[entry] : bid;
+	}
+
+	/**
+	 * @param entry a hand's entry, see entry
+	 * @param tricks a number of tricks
+	 * @return the odds of the hand taking that many, from 0 to 255, all
+	 * zero if the table has none for the entry
+	 */
+	public int getOdds(int entry, int tricks) {
+		return odds[entry * ODDS_PER_ENTRY + tricks] & 0xFF;
+	}
+
+	/**
+	 * Finds the entry's two bids with the best expected hand score, as
+	 * Player.tallyScore counts it, if its trick count is drawn from the odds.
+	 */
+	private void rankBids(int entry) {
+		int base = entry * ODDS_PER_ENTRY;
+		int handSize = entry / (ENTRIES / MAX_HAND_SIZE) + 1;
+		int first = NO_BID;
+		int second = NO_BID;
+		long firstScore = Long.MIN_VALUE;
+		long secondScore = Long.MIN_VALUE;
+		for (int bid = 0; bid <= handSize; bid++) {
+			long score = 0;
+			long weight = 0;
+			for (int tricks = 0; tricks <= handSize; tricks++) {
+				int p = odds[base + tricks] & 0xFF;
+				score += p * (bid == tricks ? 10 + 2 * bid : -5 * Math.abs(bid - tricks));
+				weight += p;
+			}
+			if (weight == 0) {
+				break;
+			}
+			if (score > firstScore) {
+				second = first;
+				secondScore = firstScore;
+				first = bid;
+				firstScore = score;
+			} else if (score > secondScore) {
+				second = bid;
+				secondScore = score;
+			}
+		}
+		best[entry] = (byte) first;
+		secondBest[entry] = (byte) second;
+	}
+}
@@ -0,0 +1,27 @@
+package core.ai;
+
+/**
+ * Decides the bids and plays of a computer seat. A strategy only sees a
+ * GameView, never players, sprites or the screen, so it can be run on
+ * any thread and tested without a table.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public interface BotStrategy {
+
+	/**
+	 * Chooses a bid. The dealer may not make the bid that brings the
+	 * total to the number of cards in hand.
+	 * @param view the seat's view of the game
+	 * @return the bid
+	 */
+	int bid(GameView view);
+
+	/**
+	 * Chooses a card to play. It must be one of view.getLegalMoves().
+	 * @param view the seat's view of the game
+	 * @return the card id
+	 */
+	int play(GameView view);
+}
@@ -0,0 +1,113 @@
+package core.ai;
+
+import core.card.CardComparator;
+import core.card.Hand;
+
+/**
+ * Proves, at the start of a trick, that the rest of the hand can only go
+ * one way, so it need not be played out. Two cases are recognised:
+ *
+ * - Every seat has one card left. The last trick is forced.
+ * - Every card the leader holds is higher than any card the other seats
+ *   hold in its suit, and is either a trump or no other seat holds a
+ *   trump. Whatever the leader leads wins, so it takes every trick.
+ *
+ * Both only ever claim what any play would give, so using them never
+ * changes a result.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class ClaimCheck {
+
+	private static final int NUM_SUITS = 4;
+
+	private ClaimCheck() {
+	}
+
+	/**
+	 * Works out the remaining tricks, if they are decided.
+	 * @param hands each seat's hand, see Hand, all the same size
+	 * @param leader the seat leading the next trick
+	 * @param trump the trump suit value
+	 * @return the tricks each seat will take, or null if play could still change them
+	 */
+	public static int[] resolve(long[] hands, int leader, int trump) {
+		int left = Hand.count(hands[leader]);
+		if (left == 0) {
+			return null;
+		}
+		int[] tricks = new int[hands.length];
+		if (left == 1) {
+			tricks[lastTrickWinner(hands, leader, trump)] = 1;
+			return tricks;
+		}
+		if (isSweep(hands, leader, trump)) {
+			tricks[leader] = left;
+			return tricks;
+		}
+		return null;
+	}
+
+	/**
+	 * @param state a position at the start of a trick
+	 * @return the tricks each seat will take from here, or null if they are not decided
+	 */
+	public static int[] resolve(CompactState state) {
+		if (state.isBidding() || state.getTrickSize() != 0) {
+			return null;
+		}
+		long[] hands = new long[state.getSeats()];
+		for (int s = 0; s < hands.length; s++) {
+			hands[s] = state.getHand(s);
+		}
+		return resolve(hands, state.getLeader(), state.getTrump());
+	}
+
+	/**
+	 * @param hands each seat's hand
+	 * @param leader the seat leading
+	 * @param trump the trump suit value
+	 * @return true if every card the leader holds is sure to win its trick
+	 */
+	public static boolean isSweep(long[] hands, int leader, int trump) {
+		long others = 0;
+		for (int s = 0; s < hands.length; s++) {
+			if (s != leader) {
+				others |= hands[s];
+			}
+		}
+		long mine = hands[leader];
+		boolean othersHaveTrumps = Hand.hasSuit(others, trump);
+		for (int suit = 0; suit < NUM_SUITS; suit++) {
+			int myBits = Hand.suitBits(mine, suit);
+			if (myBits == 0) {
+				continue;
+			}
+			if (suit != trump && othersHaveTrumps) {
+				return false;
+			}
+			// my lowest card in the suit must beat their highest
+			int theirBits = Hand.suitBits(others, suit);
+			if (theirBits != 0 && Integer.numberOfTrailingZeros(myBits) < 31 - Integer.numberOfLeadingZeros(theirBits)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param hands each seat's hand, one card each
+	 * @param leader the seat leading
+	 * @param trump the trump suit value
+	 * @return the seat that wins the last trick
+	 */
+	private static int lastTrickWinner(long[] hands, int leader, int trump) {
+		int[] cards = new int[hands.length];
+		for (int i = 0; i < cards.length; i++) {
+			int seat = (leader + i) % hands.length;
+			cards[i] = Long.numberOfTrailingZeros(hands[seat]);
+		}
+		return CardComparator.determineWinningSeat(cards, leader, trump);
+	}
+}
@@ -0,0 +1,387 @@
+package core.ai;
+
+import java.util.ArrayList;
+
+import core.GameContext;
+import core.card.CardComparator;
+import core.card.Hand;
+import core.card.PlayerCard;
+import core.player.Player;
+
+/**
+ * One hand of the game in a few words, for search. Hands are bitboards,
+ * see Hand, the current trick is packed into a long, and the bids and
+ * tricks taken are packed into another. Bids and cards can be made and
+ * taken back in constant time, so a search can try a move, recurse, and
+ * undo it without copying anything.
+ *
+ * Seats are numbered by Player.getIndex, which runs in turn order around
+ * the table.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CompactState {
+
+	// the most seats a state can hold
+	public static final int MAX_SEATS = 4;
+
+	// bits per card in the trick word, and where the number of cards played is kept
+	private static final int CARD_BITS = 6;
+	private static final int CARD_MASK = (1 << CARD_BITS) - 1;
+	private static final int COUNT_SHIFT = CARD_BITS * MAX_SEATS;
+
+	// bits per seat in the tally word, bids in the low half and tricks in the high half
+	private static final int TALLY_BITS = 8;
+	private static final int TRICKS_SHIFT = 32;
+
+	private final int seats;
+	private final int trump;
+	private final int dealer;
+	private int cardsPerSeat;
+
+	// each seat's hand, not counting cards already played to the trick
+	private final long[] hands;
+
+	// every card played this hand, including the current trick
+	private long played;
+
+	// the card ids of the current trick in play order, and their count
+	private long trick;
+
+	// each seat's bid and tricks taken
+	private long tally;
+
+	private int bidsMade;
+	private int leader;
+	private int turn;
+
+	/**
+	 * Constructor for a hand that has just been dealt, before any bids.
+	 * @param hands each seat's hand, see Hand
+	 * @param trump the trump suit value
+	 * @param dealer the dealer's seat
+	 */
+	public CompactState(long[] hands, int trump, int dealer) {
+		if (hands.length > MAX_SEATS) {
+			throw new IllegalArgumentException("at most " + MAX_SEATS + " seats");
+		}
+		this.seats = hands.length;
+		this.trump = trump;
+		this.dealer = dealer;
+		this.cardsPerSeat = Hand.count(hands[0]);
+		this.hands = hands.clone();
+		this.leader = next(dealer);
+		this.turn = leader;
+	}
+
+	private CompactState(CompactState s) {
+		this.seats = s.seats;
+		this.trump = s.trump;
+		this.dealer = s.dealer;
+		this.cardsPerSeat = s.cardsPerSeat;
+		this.hands = s.hands.clone();
+		this.played = s.played;
+		this.trick = s.trick;
+		this.tally = s.tally;
+		this.bidsMade = s.bidsMade;
+		this.leader = s.leader;
+		this.turn = s.turn;
+	}
+
+	/**
+	 * Takes the position at a live table. A trick that has been completed
+	 * but not yet cleared away counts as won.
+	 * @param context the table
+	 * @return the position
+	 */
+	public static CompactState of(GameContext context) {
+		Player[] players = context.getPlayers().getPlayers();
+		ArrayList<PlayerCard> playedCards = context.getPlayedCards();
+
+		long inTrick = 0;
+		for (PlayerCard card : playedCards) {
+			inTrick |= Hand.bit(card.getId());
+		}
+
+		long[] hands = new long[players.length];
+		int dealer = 0;
+		for (Player p : players) {
+			hands[p.getIndex()] = p.getHandMask() & ~inTrick;
+			if (p.isDealer()) {
+				dealer = p.getIndex();
+			}
+		}
+
+		CompactState state = new CompactState(hands, context.getTrumpSuit().getValue(), dealer);
+		int tricksPlayed = 0;
+		for (Player p : players) {
+			if (p.hasMadeBet()) {
+				state.tally |= (long) p.getBet() << (TALLY_BITS * p.getIndex());
+				state.bidsMade++;
+			}
+			state.tally |= (long) p.getTricks() << (TRICKS_SHIFT + TALLY_BITS * p.getIndex());
+			tricksPlayed += p.getTricks();
+		}
+		if (context.isAllPlayersBid()) {
+			state.bidsMade = state.seats;
+		}
+		state.turn = players[0].getIndex();
+		if (!state.isBidding()) {
+			state.leader = state.turn;
+		}
+
+		if (!playedCards.isEmpty()) {
+			state.leader = playedCards.get(0).getPlayer().getIndex();
+			for (PlayerCard card : playedCards) {
+				state.trick = push(state.trick, card.getId());
+			}
+			if (playedCards.size() == state.seats) {
+				int winner = state.trickWinner();
+				if (!context.getRound().isDisplayingWinner()) {
+					// not yet added to the winner's tricks
+					state.tally += 1L << (TRICKS_SHIFT + TALLY_BITS * winner);
+					tricksPlayed++;
+				}
+				state.trick = 0;
+				state.leader = winner;
+				state.turn = winner;
+			}
+		}
+
+		state.played = context.getCardsPlayed();
+		state.cardsPerSeat = Hand.count(state.hands[state.turn]) + tricksPlayed;
+		return state;
+	}
+
+	/**
+	 * Takes a position during play as one seat sees it, with the hands it
+	 * can't see filled in, such as by a sample of the unseen cards.
+	 * @param view the seat's view, after the bidding
+	 * @param hands each seat's hand, not counting cards played to the current trick
+	 * @return the position, with the viewing seat to play
+	 */
+	public static CompactState of(GameView view, long[] hands) {
+		CompactState state = new CompactState(hands, view.getTrump(), view.getDealer());
+		int tricksPlayed = 0;
+		for (int s = 0; s < state.seats; s++) {
+			state.tally |= (long) Math.max(0, view.getBid(s)) << (TALLY_BITS * s);
+			state.tally |= (long) view.getTricks(s) << (TRICKS_SHIFT + TALLY_BITS * s);
+			tricksPlayed += view.getTricks(s);
+		}
+		state.bidsMade = state.seats;
+		state.leader = view.getLeader();
+		for (int i = 0; i < view.getTrickSize(); i++) {
+			state.trick = push(state.trick, view.getTrickCard(i));
+		}
+		state.turn = view.getSeat();
+		state.played = view.getCardsPlayed();
+		state.cardsPerSeat = Hand.count(hands[state.turn]) + tricksPlayed;
+		return state;
+	}
+
+	/**
+	 * @return an independent copy
+	 */
+	public CompactState copy() {
+		return new CompactState(this);
+	}
+
+	private int next(int seat) {
+		return seat + 1 >= seats ? seat + 1 - seats : seat + 1;
+	}
+
+	private static long push(long trick, int cardId) {
+		int count = (int) (trick >>> COUNT_SHIFT);
+		trick |= (long) cardId << (CARD_BITS * count);
+		return (trick & ((1L << COUNT_SHIFT) - 1)) | (long) (count + 1) << COUNT_SHIFT;
+	}
+
+	private int trickWinner() {
+		int base = 0;
+		int winner = 0;
+		int lead = Hand.suitOf(getTrickCard(0));
+		for (int i = 0; i < seats; i++) {
+			int rank = CardComparator.rank(getTrickCard(i), lead, trump);
+			if (rank > base) {
+				base = rank;
+				winner = i;
+			}
+		}
+		int seat = leader + winner;
+		return seat >= seats ? seat - seats : seat;
+	}
+
+	/**
+	 * Makes a bid for the seat whose turn it is.
+	 * @param bid the bid
+	 */
+	public void bid(int bid) {
+		tally |= (long) bid << (TALLY_BITS * turn);
+		bidsMade++;
+		turn = next(turn);
+	}
+
+	/**
+	 * Takes back the last bid.
+	 */
+	public void undoBid() {
+		bidsMade--;
+		turn = turn == 0 ? seats - 1 : turn - 1;
+		tally &= ~((long) ((1 << TALLY_BITS) - 1) << (TALLY_BITS * turn));
+	}
+
+	/**
+	 * Plays a card for the seat whose turn it is. The card must be in that
+	 * seat's hand, and should be one of getLegalMoves. When it completes
+	 * the trick, the trick is scored and the winner leads the next one.
+	 * @param cardId the card's id
+	 * @return a token for undoCard
+	 */
+	public long playCard(int cardId) {
+		long token = trick | (long) leader << 32 | (long) cardId << 40;
+		long bit = 1L << cardId;
+		hands[turn] &= ~bit;
+		played |= bit;
+		trick = push(trick, cardId);
+		if (getTrickSize() == seats) {
+			int winner = trickWinner();
+			tally += 1L << (TRICKS_SHIFT + TALLY_BITS * winner);
+			trick = 0;
+			leader = winner;
+			turn = winner;
+		} else {
+			turn = next(turn);
+		}
+		return token;
+	}
+
+	/**
+	 * Takes back a card, which must be the last move made.
+	 * @param token the token playCard returned
+	 */
+	public void undoCard(long token) {
+		int cardId = (int) (token >>> 40) & CARD_MASK;
+		long oldTrick = token & 0xFFFFFFFFL;
+		int oldCount = (int) (oldTrick >>> COUNT_SHIFT);
+		if (oldCount == seats - 1) {
+			// the card finished the trick, and the leader now is its winner
+			tally -= 1L << (TRICKS_SHIFT + TALLY_BITS * leader);
+		}
+		leader = (int) (token >>> 32) & 0xFF;
+		int seat = leader + oldCount;
+		turn = seat >= seats ? seat - seats : seat;
+		long bit = 1L << cardId;
+		hands[turn] |= bit;
+		played &= ~bit;
+		trick = oldTrick;
+	}
+
+	/**
+	 * @return the cards the seat whose turn it is may play
+	 */
+	public long getLegalMoves() {
+		return Hand.legalMoves(hands[turn], getLedSuit());
+	}
+
+	/**
+	 * @return the suit value led to the current trick, or Hand.NO_SUIT
+	 */
+	public int getLedSuit() {
+		return getTrickSize() == 0 ? Hand.NO_SUIT : Hand.suitOf(getTrickCard(0));
+	}
+
+	public int getTrickSize() {
+		return (int) (trick >>> COUNT_SHIFT);
+	}
+
+	/**
+	 * @param i the position in the current trick, from 0
+	 * @return the id of the card played there
+	 */
+	public int getTrickCard(int i) {
+		return (int) (trick >>> (CARD_BITS * i)) & CARD_MASK;
+	}
+
+	public boolean isBidding() {
+		return bidsMade < seats;
+	}
+
+	/**
+	 * @return true when every card of the hand has been played
+	 */
+	public boolean isHandOver() {
+		return getTrickSize() == 0 && hands[turn] == 0 && !isBidding();
+	}
+
+	/**
+	 * @return the bid the dealer may not make, or -1 if it is not the
+	 * dealer's turn to bid or every bid is allowed
+	 */
+	public int getForbiddenBid() {
+		if (!isBidding() || turn != dealer) {
+			return -1;
+		}
+		int forbidden = cardsPerSeat - getTotalBids();
+		return forbidden >= 0 ? forbidden : -1;
+	}
+
+	public int getTotalBids() {
+		int total = 0;
+		for (int s = 0; s < seats; s++) {
+			total += getBid(s);
+		}
+		return total;
+	}
+
+	public int getBid(int seat) {
+		return (int) (tally >>> (TALLY_BITS * seat)) & ((1 << TALLY_BITS) - 1);
+	}
+
+	public int getTricks(int seat) {
+		return (int) (tally >>> (TRICKS_SHIFT + TALLY_BITS * seat)) & ((1 << TALLY_BITS) - 1);
+	}
+
+	/**
+	 * Scores a seat's hand the way Player.tallyScore does.
+	 * @param seat the seat
+	 * @return the points the seat would get with its bid and tricks so far
+	 */
+	public int getHandScore(int seat) {
+		int bid = getBid(seat);
+		int tricks = getTricks(seat);
+		return bid == tricks ? 10 + 2 * bid : -5 * Math.abs(bid - tricks);
+	}
+
+	public long getHand(int seat) {
+		return hands[seat];
+	}
+
+	public long getPlayed() {
+		return played;
+	}
+
+	public int getSeats() {
+		return seats;
+	}
+
+	public int getTrump() {
+		return trump;
+	}
+
+	public int getDealer() {
+		return dealer;
+	}
+
+	public int getLeader() {
+		return leader;
+	}
+
+	public int getTurn() {
+		return turn;
+	}
+
+	public int getCardsPerSeat() {
+		return cardsPerSeat;
+	}
+}
@@ -0,0 +1,681 @@
+package core.ai;
+
+import java.util.Arrays;
+
+import core.card.CardComparator;
+import core.card.Hand;
+
+/**
+ * Solves hands with every card known. One seat plays against the rest,
+ * who play together to stop it, and the solver finds either the most
+ * tricks the seat can be sure of, or whether it can be sure of taking
+ * exactly a number of tricks. Tricks are won by CardComparator's ranks,
+ * through CompactState.
+ *
+ * The searches are alpha-beta with a zero window, each asking whether
+ * the seat can force at least, or exactly, some number of tricks, with:
+ * - equivalent cards tried once: cards of a suit in one hand with only
+ *   cards from finished tricks between them win and lose the same tricks
+ * - moves ordered so the likely best come first: leads from the top,
+ *   and the cheapest card that wins the trick before the cards that don't,
+ *   all worked out on bitboards
+ * - a transposition table at the start of each trick, keyed by the
+ *   leader and the order of the cards left in each suit, so positions
+ *   that differ only in which low cards have gone share an entry
+ * - limits at the start of each trick: trumps above every trump the other
+ *   side holds each win a trick wherever they are played, and the leader
+ *   is sure of its quick tricks, its winners from the top of each suit
+ *
+ * Entries hold for any deal with the same trump suit and seats, so the
+ * tables are kept from one solve to the next, and the samples of one
+ * decision share them. Timed warm on random 9-card deals, the median
+ * solve takes about 1 ms for the most tricks and well under 0.1 ms for an
+ * exact count or a window of the bid and one either side, though one deal
+ * in a hundred still takes 30 to 100 ms. IsmctsStrategy can solve its
+ * samples near the end of a hand.
+ *
+ * A solver keeps its tables between calls, so one should be kept per
+ * thread.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class DoubleDummySolver {
+
+	// entries in each transposition table, a power of two
+	private static final int TABLE_SIZE = 1 << 18;
+
+	// the most cards a search can play, and the most moves a seat can have
+	private static final int MAX_DEPTH = Hand.DECK_SIZE + 1;
+	private static final int MAX_MOVES = Hand.SUIT_SIZE;
+
+	private static final int NUM_SUITS = 4;
+
+	// the layout of a position key: for each suit, a bit for each card left
+	// saying whether an odd seat holds it, then a bit for whether seat 2 or 3
+	// does, up to 104 bits from the bottom of the low word; then in the top of
+	// the high word the leader, the suit lengths, the tricks needed for exact
+	// searches and the seat solving for
+	private static final int SEAT_BITS = 2;
+	private static final int LENGTH_BITS = 4;
+	private static final int NEED_BITS = 4;
+	private static final int LEADER_SHIFT = 2 * Hand.DECK_SIZE - Long.SIZE;
+	private static final int LENGTH_SHIFT = LEADER_SHIFT + SEAT_BITS;
+	private static final int NEED_SHIFT = LENGTH_SHIFT + LENGTH_BITS * NUM_SUITS;
+	private static final int SOLVER_SHIFT = NEED_SHIFT + NEED_BITS;
+
+	// packs the bits of a 7 bit value picked out by a 7 bit mask to the bottom,
+	// indexed by the mask then the value
+	private static final int CHUNK_BITS = 7;
+	private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+	private static final byte[] COMPRESS = new byte[1 << (2 * CHUNK_BITS)];
+
+	static {
+		for (int mask = 0; mask <= CHUNK_MASK; mask++) {
+			for (int value = 0; value <= CHUNK_MASK; value++) {
+				int packed = 0;
+				int n = 0;
+				for (int b = mask; b != 0; b &= b - 1) {
+					if ((value & b & -b) != 0) {
+						packed |= 1 << n;
+					}
+					n++;
+				}
+				COMPRESS[mask << CHUNK_BITS | value] = (byte) packed;
+			}
+		}
+	}
+
+	/**
+	 * An open addressed table of values, overwritten on collision. Entries
+	 * from earlier solves are told apart by a generation number rather
+	 * than cleared. Each entry's key and values sit together, so a probe
+	 * touches one cache line.
+	 */
+	private static final class Table {
+		// per entry: the two key words, then the generation above a lower and an upper byte
+		private static final int STRIDE = 3;
+		private static final int VALUE_BITS = 8;
+		private static final int VALUE_MASK = (1 << VALUE_BITS) - 1;
+
+		private final long[] entries = new long[STRIDE * TABLE_SIZE];
+
+		private int slot(long key1, long key2) {
+			long h = key1 * 0x9E3779B97F4A7C15L ^ key2 * 0xC2B2AE3D27D4EB4FL;
+			h ^= h >>> 29;
+			return STRIDE * ((int) (h >>> 40) & (TABLE_SIZE - 1));
+		}
+
+		/**
+		 * @return the entry's index, or -1 if it is not in the table
+		 */
+		private int find(long key1, long key2, int generation) {
+			int i = slot(key1, key2);
+			return entries[i] == key1 && entries[i + 1] == key2 && entries[i + 2] >>> (2 * VALUE_BITS) == generation
+					? i : -1;
+		}
+
+		/**
+		 * @return the entry's index, emptied first if it held another position
+		 */
+		private int claim(long key1, long key2, int generation) {
+			int i = slot(key1, key2);
+			if (entries[i] != key1 || entries[i + 1] != key2 || entries[i + 2] >>> (2 * VALUE_BITS) != generation) {
+				entries[i] = key1;
+				entries[i + 1] = key2;
+				entries[i + 2] = (long) generation << (2 * VALUE_BITS) | Byte.MAX_VALUE;
+			}
+			return i;
+		}
+
+		private int lower(int i) {
+			return (int) (entries[i + 2] >>> VALUE_BITS) & VALUE_MASK;
+		}
+
+		private int upper(int i) {
+			return (int) entries[i + 2] & VALUE_MASK;
+		}
+
+		private void set(int i, int lower, int upper) {
+			entries[i + 2] = entries[i + 2] >>> (2 * VALUE_BITS) << (2 * VALUE_BITS) | lower << VALUE_BITS | upper;
+		}
+	}
+
+	private final Table bounds = new Table();
+	private final Table targets = new Table();
+	private int generation;
+
+	// the trump suit and number of seats the tables' entries were solved with
+	private int tableTrump = -1;
+	private int tableSeats;
+
+	private final int[][] moves = new int[MAX_DEPTH][MAX_MOVES];
+
+	// the last move at each depth that decided an exact search, tried first next time;
+	// searches for the most tricks do better with the plain order
+	private final int[] killers = new int[MAX_DEPTH];
+
+	// the last position key worked out
+	private long keyHigh;
+	private long keyLow;
+
+	// the fewest tricks the seat is sure of and the most it can take, from
+	// the last position limits was worked out for
+	private int fewest;
+	private int most;
+
+	// the seat solving for, in the current solve
+	private int seat;
+	private long nodes;
+
+	/**
+	 * Finds the most tricks a seat can be sure of taking this hand, if it
+	 * plays its best and every other seat plays to stop it.
+	 * @param state a position during play, which is left as it was
+	 * @param seat the seat
+	 * @return the seat's tricks for the whole hand, counting those already taken
+	 */
+	public int maxTricks(CompactState state, int seat) {
+		return maxTricks(state, seat, 0, Hand.DECK_SIZE);
+	}
+
+	/**
+	 * Finds the most tricks a seat can be sure of taking, but only tells
+	 * apart the counts from low to high. It only searches for the counts
+	 * in between, so a narrow window, such as a bid and one either side,
+	 * costs a search or two instead of every count.
+	 * @param state a position during play, which is left as it was
+	 * @param seat the seat
+	 * @param low the fewest tricks for the whole hand worth telling apart
+	 * @param high the most tricks for the whole hand worth telling apart
+	 * @return the seat's tricks for the whole hand, counting those already
+	 * taken, raised to low or lowered to high if it is outside them
+	 */
+	public int maxTricks(CompactState state, int seat, int low, int high) {
+		begin(state, seat);
+		int taken = state.getTricks(seat);
+		int floor = Math.max(0, low - taken);
+		int ceiling = Math.min(remainingTricks(state), high - taken);
+		if (ceiling <= floor) {
+			return taken + Math.max(floor, ceiling);
+		}
+
+		// zero window searches stepping out from a quick playout's count, which is
+		// usually right or one off, so most solves take two searches
+		CompactState guess = state.copy();
+		PlayoutPolicy.playOut(guess);
+		int tricks = Math.max(floor, Math.min(ceiling, guess.getTricks(seat) - taken));
+		if (tricks == floor || atLeast(state, 0, tricks)) {
+			while (tricks < ceiling && atLeast(state, 0, tricks + 1)) {
+				tricks++;
+			}
+		} else {
+			do {
+				tricks--;
+			} while (tricks > floor && !atLeast(state, 0, tricks));
+		}
+		return taken + tricks;
+	}
+
+	/**
+	 * Finds whether a seat can be sure of taking exactly a number of
+	 * tricks this hand, whatever the other seats do.
+	 * @param state a position during play, which is left as it was
+	 * @param seat the seat
+	 * @param target the number of tricks for the whole hand, such as its bid
+	 * @return true if the seat can force exactly that many
+	 */
+	public boolean canTakeExactly(CompactState state, int seat, int target) {
+		begin(state, seat);
+		return reach(state, 0, target - state.getTricks(seat));
+	}
+
+	/**
+	 * @return the positions searched by the last solve
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Forgets every position solved so far.
+	 */
+	public void clear() {
+		generation++;
+	}
+
+	private void begin(CompactState state, int seat) {
+		this.seat = seat;
+		this.nodes = 0;
+		// entries hold for any deal played with the same trump and seats
+		if (state.getTrump() != tableTrump || state.getSeats() != tableSeats) {
+			tableTrump = state.getTrump();
+			tableSeats = state.getSeats();
+			clear();
+		}
+		Arrays.fill(killers, -1);
+	}
+
+	/**
+	 * @return the tricks still to be won, counting the current one
+	 */
+	private static int remainingTricks(CompactState state) {
+		int left = Hand.count(state.getHand(state.getLeader()));
+		return state.getTrickSize() == 0 ? left : left + 1;
+	}
+
+	/**
+	 * Zero window search for whether the seat can be sure of taking at
+	 * least a number of tricks from here. At the start of a trick the
+	 * table keeps the most tricks known to be sure and the fewest known
+	 * not to be, so searches for different numbers share their work.
+	 * @param need the tricks the seat still needs to take
+	 */
+	private boolean atLeast(CompactState state, int depth, int need) {
+		nodes++;
+		if (need <= 0) {
+			return true;
+		}
+		boolean boundary = state.getTrickSize() == 0;
+		long key1 = 0;
+		long key2 = 0;
+		if (boundary) {
+			int leader = state.getLeader();
+			int left = Hand.count(state.getHand(leader));
+			if (need > left) {
+				return false;
+			}
+			if (left == 1) {
+				return lastTrickWinner(state) == seat;
+			}
+			limits(state, left, true);
+			if (need <= fewest) {
+				return true;
+			}
+			if (need > most) {
+				return false;
+			}
+			positionKey(state);
+			key1 = keyHigh;
+			key2 = keyLow;
+			int i = bounds.find(key1, key2, generation);
+			if (i >= 0) {
+				if (need <= bounds.lower(i)) {
+					return true;
+				}
+				if (need > bounds.upper(i)) {
+					return false;
+				}
+			}
+		}
+
+		boolean maximizing = state.getTurn() == seat;
+		int before = state.getTricks(seat);
+		int count = orderMoves(state, moves[depth]);
+		// the seat needs one move that works, the others one that doesn't
+		boolean result = !maximizing;
+		for (int m = 0; m < count; m++) {
+			long token = state.playCard(moves[depth][m]);
+			boolean ok = atLeast(state, depth + 1, need - (state.getTricks(seat) - before));
+			state.undoCard(token);
+			if (ok == maximizing) {
+				result = maximizing;
+				break;
+			}
+		}
+
+		if (boundary) {
+			int i = bounds.claim(key1, key2, generation);
+			if (result) {
+				bounds.set(i, Math.max(bounds.lower(i), need), bounds.upper(i));
+			} else {
+				bounds.set(i, bounds.lower(i), Math.min(bounds.upper(i), need - 1));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Searches for whether the seat can force exactly the tricks it needs.
+	 * @param need the tricks the seat still needs to take
+	 */
+	private boolean reach(CompactState state, int depth, int need) {
+		nodes++;
+		if (need < 0) {
+			return false;
+		}
+		boolean boundary = state.getTrickSize() == 0;
+		long key1 = 0;
+		long key2 = 0;
+		if (boundary) {
+			int leader = state.getLeader();
+			int left = Hand.count(state.getHand(leader));
+			if (need > left) {
+				return false;
+			}
+			if (left == 0) {
+				return need == 0;
+			}
+			if (left == 1) {
+				return need == (lastTrickWinner(state) == seat ? 1 : 0);
+			}
+			// the seat may not want the tricks it could take on lead
+			limits(state, left, false);
+			if (need < fewest || need > most) {
+				return false;
+			}
+			positionKey(state);
+			key1 = keyHigh | (long) need << NEED_SHIFT;
+			key2 = keyLow;
+			int i = targets.find(key1, key2, generation);
+			if (i >= 0) {
+				return targets.lower(i) != 0;
+			}
+		}
+
+		boolean forcing = state.getTurn() == seat;
+		int before = state.getTricks(seat);
+		int count = orderMoves(state, moves[depth], killers[depth]);
+		// the seat needs one move that works, the others one that doesn't
+		boolean result = !forcing;
+		for (int m = 0; m < count; m++) {
+			long token = state.playCard(moves[depth][m]);
+			boolean ok = reach(state, depth + 1, need - (state.getTricks(seat) - before));
+			state.undoCard(token);
+			if (ok == forcing) {
+				result = forcing;
+				killers[depth] = moves[depth][m];
+				break;
+			}
+		}
+
+		if (boundary) {
+			int i = targets.claim(key1, key2, generation);
+			targets.set(i, result ? 1 : 0, 0);
+		}
+		return result;
+	}
+
+	/**
+	 * Works out the key of a position at the start of a trick into keyHigh
+	 * and keyLow. Only the order of the cards left in each suit matters,
+	 * not which cards they are, so the key is the leader, then for each
+	 * suit the seats holding its remaining cards, from the lowest up, and
+	 * the seat solving for. Positions that differ only in which low cards
+	 * have gone share a key.
+	 */
+	private void positionKey(CompactState state) {
+		int seats = state.getSeats();
+		long high = (long) state.getLeader() << LEADER_SHIFT | (long) seat << SOLVER_SHIFT;
+		long low = 0;
+		int n = 0;
+		for (int suit = 0; suit < NUM_SUITS; suit++) {
+			int all = 0;
+			int odd = 0;
+			int upper = 0;
+			for (int s = 0; s < seats; s++) {
+				int bits = Hand.suitBits(state.getHand(s), suit);
+				all |= bits;
+				odd |= (s & 1) != 0 ? bits : 0;
+				upper |= (s & 2) != 0 ? bits : 0;
+			}
+			int length = Integer.bitCount(all);
+			high |= (long) length << (LENGTH_SHIFT + LENGTH_BITS * suit);
+			long holders = compress(odd, all) | (long) compress(upper, all) << length;
+			if (n < Long.SIZE) {
+				low |= holders << n;
+				if (n + 2 * length > Long.SIZE) {
+					high |= holders >>> (Long.SIZE - n);
+				}
+			} else {
+				high |= holders << (n - Long.SIZE);
+			}
+			n += 2 * length;
+		}
+		keyHigh = high;
+		keyLow = low;
+	}
+
+	/**
+	 * @param value some bits of a suit, all within the mask
+	 * @param mask the bits of the suit that count
+	 * @return the value's bits packed to the bottom, in order
+	 */
+	private static int compress(int value, int mask) {
+		int lowMask = mask & CHUNK_MASK;
+		int low = COMPRESS[lowMask << CHUNK_BITS | value & CHUNK_MASK];
+		int high = COMPRESS[(mask >>> CHUNK_BITS) << CHUNK_BITS | value >>> CHUNK_BITS];
+		return low | high << Integer.bitCount(lowMask);
+	}
+
+	/**
+	 * Works out the fewest tricks the seat is sure of from the start of a
+	 * trick, and the most it can take, into fewest and most. Each trump
+	 * above every trump the others hold wins whatever trick it is played
+	 * to, and so does each of theirs above every trump the seat holds,
+	 * though two of theirs may fall to the same trick. On top of that the
+	 * leader's quick tricks are sure for it.
+	 * @param left the tricks left
+	 * @param wanted true if the seat takes any tricks it can, false if it may
+	 * not want the quick tricks it has on lead
+	 */
+	private void limits(CompactState state, int left, boolean wanted) {
+		int trump = state.getTrump();
+		int mine = Hand.suitBits(state.getHand(seat), trump);
+		int theirs = 0;
+		for (int s = 0; s < state.getSeats(); s++) {
+			if (s != seat) {
+				theirs |= Hand.suitBits(state.getHand(s), trump);
+			}
+		}
+		fewest = Integer.bitCount(theirs == 0 ? mine : mine & -(Integer.highestOneBit(theirs) << 1));
+		int top = mine == 0 ? theirs : theirs & -(Integer.highestOneBit(mine) << 1);
+		int lost = 0;
+		if (top != 0) {
+			for (int s = 0; s < state.getSeats(); s++) {
+				if (s != seat) {
+					lost = Math.max(lost, Integer.bitCount(Hand.suitBits(state.getHand(s), trump) & top));
+				}
+			}
+		}
+		most = left - lost;
+
+		int quick = quickTricks(state);
+		if (state.getLeader() != seat) {
+			most = Math.min(most, left - quick);
+		} else if (wanted || quick == left) {
+			fewest = Math.max(fewest, quick);
+		}
+	}
+
+	/**
+	 * Counts the tricks the leader is sure of by leading its winners: its
+	 * trumps above every other trump, then, if those have drawn every other
+	 * seat's trumps, its cards above every other card in their suits. When
+	 * this is every trick left, the leader sweeps, see ClaimCheck.
+	 * @param state a position at the start of a trick
+	 * @return the leader's sure tricks
+	 */
+	private static int quickTricks(CompactState state) {
+		int leader = state.getLeader();
+		int trump = state.getTrump();
+		long others = 0;
+		int mostTrumps = 0;
+		for (int s = 0; s < state.getSeats(); s++) {
+			if (s != leader) {
+				long hand = state.getHand(s);
+				others |= hand;
+				mostTrumps = Math.max(mostTrumps, Hand.countSuit(hand, trump));
+			}
+		}
+		long mine = state.getHand(leader);
+		int trumpTricks = 0;
+		int sideTricks = 0;
+		for (int suit = 0; suit < NUM_SUITS; suit++) {
+			int myBits = Hand.suitBits(mine, suit);
+			if (myBits == 0) {
+				continue;
+			}
+			// my cards above their highest
+			int theirBits = Hand.suitBits(others, suit);
+			int winners = theirBits == 0 ? myBits : myBits & -(Integer.highestOneBit(theirBits) << 1);
+			if (suit == trump) {
+				trumpTricks = Integer.bitCount(winners);
+			} else {
+				sideTricks += Integer.bitCount(winners);
+			}
+		}
+		return mostTrumps <= trumpTricks ? trumpTricks + sideTricks : trumpTricks;
+	}
+
+	/**
+	 * @param state a position at the start of the last trick
+	 * @return the seat that wins it
+	 */
+	private static int lastTrickWinner(CompactState state) {
+		int seats = state.getSeats();
+		int leader = state.getLeader();
+		int led = Hand.suitOf(Long.numberOfTrailingZeros(state.getHand(leader)));
+		int winner = leader;
+		int best = 0;
+		for (int s = 0; s < seats; s++) {
+			int rank = CardComparator.rank(Long.numberOfTrailingZeros(state.getHand(s)), led, state.getTrump());
+			if (rank > best) {
+				best = rank;
+				winner = s;
+			}
+		}
+		return winner;
+	}
+
+	/**
+	 * Fills in the moves to try, one card from each group of equivalent
+	 * cards, best first. The killer move goes first of all if it is there.
+	 * @param state the position
+	 * @param out the moves
+	 * @param killer the last move to decide a position at this depth, or -1
+	 * @return the number of moves
+	 */
+	private int orderMoves(CompactState state, int[] out, int killer) {
+		int n = orderMoves(state, out);
+		for (int i = 1; i < n; i++) {
+			if (out[i] == killer) {
+				System.arraycopy(out, 0, out, 1, i);
+				out[0] = killer;
+				break;
+			}
+		}
+		return n;
+	}
+
+	private int orderMoves(CompactState state, int[] out) {
+		long legal = state.getLegalMoves();
+		int trump = state.getTrump();
+		int led = state.getLedSuit();
+		int size = state.getTrickSize();
+
+		// cards from finished tricks can't change who wins this one
+		long inTrick = 0;
+		for (int i = 0; i < size; i++) {
+			inTrick |= Hand.bit(state.getTrickCard(i));
+		}
+		long gone = state.getPlayed() & ~inTrick;
+		long reps = representatives(legal, state.getHand(state.getTurn()) | gone);
+
+		if (led == Hand.NO_SUIT) {
+			// lead from the top
+			return byFace(reps, out, 0, true);
+		}
+
+		// the card winning the trick so far, and the cards that would beat it
+		int leader = state.getLeader();
+		int winningCard = state.getTrickCard(0);
+		int winning = CardComparator.rank(winningCard, led, trump);
+		int winningSeat = leader;
+		for (int i = 1; i < size; i++) {
+			int card = state.getTrickCard(i);
+			int rank = CardComparator.rank(card, led, trump);
+			if (rank > winning) {
+				winning = rank;
+				winningCard = card;
+				winningSeat = (leader + i) % state.getSeats();
+			}
+		}
+		long above = Hand.suitMask(Hand.suitOf(winningCard)) & -(Hand.bit(winningCard) << 1);
+		if (Hand.suitOf(winningCard) != trump) {
+			above |= Hand.suitMask(trump);
+		}
+		long winners = reps & above;
+
+		// the seat and anyone beating it take the trick as cheaply as they can; the
+		// other seats go over the top when the seat is still to play, and keep their
+		// winners back when the seat has already lost the trick
+		int position = (seat - leader + state.getSeats()) % state.getSeats();
+		boolean seatToPlay = position >= size;
+		boolean keepBack = state.getTurn() != seat && winningSeat != seat && !seatToPlay;
+		int n = 0;
+		if (!keepBack) {
+			if (state.getTurn() != seat && seatToPlay) {
+				n = byFace(winners, out, n, true);
+			} else {
+				// cheapest first: the suit led from the bottom, then trumps from the bottom
+				n = inOrder(winners & Hand.suitMask(led), out, n);
+				if (led != trump) {
+					n = inOrder(winners & Hand.suitMask(trump), out, n);
+				}
+			}
+		}
+		return byFace(keepBack ? reps : reps & ~winners, out, n, false);
+	}
+
+	/**
+	 * Picks the highest of each group of equivalent legal cards: cards of a
+	 * suit with only cards from the same hand or from finished tricks
+	 * between them.
+	 * @param legal the legal moves
+	 * @param filled the hand and the cards from finished tricks
+	 * @return one card from each group
+	 */
+	private static long representatives(long legal, long filled) {
+		long reps = 0;
+		for (int suit = 0; suit < NUM_SUITS; suit++) {
+			int mine = Hand.suitBits(legal, suit);
+			int run = Hand.suitBits(filled, suit);
+			while (mine != 0) {
+				int top = Integer.highestOneBit(mine);
+				reps |= (long) top << (Hand.SUIT_SIZE * suit);
+				// the group runs down to the first face outside it
+				int gaps = ~run & (top - 1);
+				mine &= gaps == 0 ? 0 : Integer.highestOneBit(gaps) - 1;
+			}
+		}
+		return reps;
+	}
+
+	/**
+	 * Adds cards to the moves by face, ties in suit order.
+	 * @return the number of moves
+	 */
+	private static int byFace(long cards, int[] out, int n, boolean descending) {
+		int faces = Hand.faces(cards);
+		while (faces != 0) {
+			int face = descending ? 31 - Integer.numberOfLeadingZeros(faces) : Integer.numberOfTrailingZeros(faces);
+			faces &= ~(1 << face);
+			for (long c = cards & Hand.faceMask(face); c != 0; c &= c - 1) {
+				out[n++] = Long.numberOfTrailingZeros(c);
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * Adds cards to the moves in id order, so lowest first within a suit.
+	 * @return the number of moves
+	 */
+	private static int inOrder(long cards, int[] out, int n) {
+		for (long c = cards; c != 0; c &= c - 1) {
+			out[n++] = Long.numberOfTrailingZeros(c);
+		}
+		return n;
+	}
+}
@@ -0,0 +1,314 @@
+package core.ai;
+
+import java.util.ArrayList;
+
+import core.GameContext;
+import core.card.Hand;
+import core.card.PlayerCard;
+import core.card.VoidTracker;
+import core.player.Player;
+import util.GameClock;
+
+/**
+ * What one seat can see of the game when it has to decide: its own hand,
+ * the bids and tricks so far, the current trick and the trump suit. A
+ * view is a copy taken at the moment of the decision, so a strategy can
+ * read it on any thread while the game moves on.
+ *
+ * Cards are card ids and sets of cards are bitboards, see Hand.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public final class GameView {
+
+	// bid for seats that have not bid yet
+	public static final int NO_BID = -1;
+
+	private final int seat;
+	private final int dealer;
+	private final int trump;
+
+	// the card turned up after dealing, out of play for the hand, or -1
+	private final int topCard;
+
+	// the hand as a bitboard, and its card ids in the order the player holds them
+	private final long hand;
+	private final int[] handOrder;
+
+	// the card ids played to the current trick in order, and the seat that led it
+	private final int[] trick;
+	private final int leader;
+
+	// each seat's bid, or NO_BID, and tricks taken this hand
+	private final int[] bids;
+	private final int[] tricks;
+
+	// every card played this hand
+	private final long cardsPlayed;
+
+	// the suits each seat is known to be out of, see VoidTracker
+	private final int[] voids;
+
+	// the clock the table's timers read, which decision budgets are kept on
+	private final GameClock clock;
+
+	/**
+	 * Constructor
+	 * @param seat the seat deciding
+	 * @param dealer the dealer's seat
+	 * @param trump the trump suit value
+	 * @param topCard the id of the card turned up, or -1
+	 * @param handOrder the card ids in hand, in the order they are held
+	 * @param trick the card ids played to the current trick, in order
+	 * @param leader the seat that led the current trick
+	 * @param bids each seat's bid, or NO_BID
+	 * @param tricks each seat's tricks taken
+	 * @param cardsPlayed every card played this hand
+	 * @param voids the suits each seat is known to be out of, see VoidTracker
+	 * @param clock the table's clock
+	 */
+	public GameView(int seat, int dealer, int trump, int topCard, int[] handOrder, int[] trick, int leader,
+			int[] bids, int[] tricks, long cardsPlayed, int[] voids, GameClock clock) {
+		this.seat = seat;
+		this.dealer = dealer;
+		this.trump = trump;
+		this.topCard = topCard;
+		this.handOrder = handOrder.clone();
+		this.trick = trick.clone();
+		this.leader = leader;
+		this.bids = bids.clone();
+		this.tricks = tricks.clone();
+		this.cardsPlayed = cardsPlayed;
+		this.voids = voids.clone();
+		this.clock = clock;
+		long h = 0;
+		for (int id : handOrder) {
+			h |= Hand.bit(id);
+		}
+		this.hand = h;
+	}
+
+	/**
+	 * Takes the view of one player at a live table.
+	 * @param context the table
+	 * @param player the player deciding
+	 * @return the view
+	 */
+	public static GameView of(GameContext context, Player player) {
+		Player[] players = context.getPlayers().getPlayers();
+		int[] bids = new int[players.length];
+		int[] tricks = new int[players.length];
+		int dealer = 0;
+		for (Player p : players) {
+			bids[p.getIndex()] = p.hasMadeBet() ? p.getBet() : NO_BID;
+			tricks[p.getIndex()] = p.getTricks();
+			if (p.isDealer()) {
+				dealer = p.getIndex();
+			}
+		}
+
+		ArrayList<PlayerCard> hand = player.getHand();
+		int[] handOrder = new int[hand.size()];
+		for (int i = 0; i < handOrder.length; i++) {
+			handOrder[i] = hand.get(i).getId();
+		}
+
+		ArrayList<PlayerCard> played = context.getPlayedCards();
+		int[] trick = new int[played.size()];
+		for (int i = 0; i < trick.length; i++) {
+			trick[i] = played.get(i).getId();
+		}
+		int leader = played.isEmpty() ? player.getIndex() : played.get(0).getPlayer().getIndex();
+
+		int topCard = context.getTopCard() == null ? -1 : context.getTopCard().getId();
+		return new GameView(player.getIndex(), dealer, context.getTrumpSuit().getValue(), topCard,
+				handOrder, trick, leader, bids, tricks, context.getCardsPlayed(),
+				context.getVoidTracker().getAllVoids(), context.getClock());
+	}
+
+	public int getSeat() {
+		return seat;
+	}
+
+	public int getSeats() {
+		return bids.length;
+	}
+
+	public int getDealer() {
+		return dealer;
+	}
+
+	public boolean isDealer() {
+		return seat == dealer;
+	}
+
+	public int getTrump() {
+		return trump;
+	}
+
+	/**
+	 * @return the id of the card turned up to set trumps, or -1
+	 */
+	public int getTopCard() {
+		return topCard;
+	}
+
+	/**
+	 * @return the cards this seat has not seen: not in its hand, not played, and not turned up
+	 */
+	public long getUnseen() {
+		long seen = hand | cardsPlayed;
+		if (topCard >= 0) {
+			seen |= Hand.bit(topCard);
+		}
+		return Hand.FULL_DECK & ~seen;
+	}
+
+	/**
+	 * @param seat a seat
+	 * @return the suits the seat has shown it is out of, a bit per suit value
+	 */
+	public int getVoids(int seat) {
+		return voids[seat];
+	}
+
+	/**
+	 * @param seat a seat
+	 * @return the cards the seat can't be holding, by the suits it has shown it is out of
+	 */
+	public long getImpossible(int seat) {
+		return VoidTracker.voidCards(voids[seat]);
+	}
+
+	public long getHand() {
+		return hand;
+	}
+
+	/**
+	 * @return the table's clock, which a strategy's time budget is measured on
+	 */
+	public GameClock getClock() {
+		return clock;
+	}
+
+	public int getHandSize() {
+		return handOrder.length;
+	}
+
+	/**
+	 * @param i a position in hand, from 0
+	 * @return the id of the card held there
+	 */
+	public int getHandCard(int i) {
+		return handOrder[i];
+	}
+
+	public int getTrickSize() {
+		return trick.length;
+	}
+
+	/**
+	 * @param i a position in the current trick, from 0
+	 * @return the id of the card played there
+	 */
+	public int getTrickCard(int i) {
+		return trick[i];
+	}
+
+	/**
+	 * @return the current trick's card ids, in the order they were played
+	 */
+	public int[] getTrick() {
+		return trick.clone();
+	}
+
+	/**
+	 * @return the suit value led to the current trick, or Hand.NO_SUIT
+	 */
+	public int getLedSuit() {
+		return trick.length == 0 ? Hand.NO_SUIT : Hand.suitOf(trick[0]);
+	}
+
+	public int getLeader() {
+		return leader;
+	}
+
+	/**
+	 * @param seat a seat
+	 * @return the seat's bid, or NO_BID
+	 */
+	public int getBid(int seat) {
+		return bids[seat];
+	}
+
+	/**
+	 * @return the sum of the bids made so far
+	 */
+	public int getTotalBids() {
+		int total = 0;
+		for (int bid : bids) {
+			if (bid != NO_BID) {
+				total += bid;
+			}
+		}
+		return total;
+	}
+
+	public int getTricks(int seat) {
+		return tricks[seat];
+	}
+
+	/**
+	 * @return every card played this hand, including the current trick
+	 */
+	public long getCardsPlayed() {
+		return cardsPlayed;
+	}
+
+	/**
+	 * @return the cards this seat may play now
+	 */
+	public long getLegalMoves() {
+		return Hand.legalMoves(hand, getLedSuit());
+	}
+
+	/**
+	 * Gets the highest face value card out of some of the cards in hand.
+	 * Ties go to the card held first.
+	 * @param cards some of the cards in hand
+	 * @return the card id, or -1 if there are none
+	 */
+	public int getHighestCard(long cards) {
+		if (cards == 0) {
+			return -1;
+		}
+		int face = Hand.highestFace(cards);
+		for (int id : handOrder) {
+			if (Hand.faceOf(id) == face && (cards & Hand.bit(id)) != 0) {
+				return id;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the lowest face value card out of some of the cards in hand.
+	 * Ties go to the card held last.
+	 * @param cards some of the cards in hand
+	 * @return the card id, or -1 if there are none
+	 */
+	public int getLowestCard(long cards) {
+		if (cards == 0) {
+			return -1;
+		}
+		int face = Hand.lowestFace(cards);
+		for (int i = handOrder.length - 1; i >= 0; i--) {
+			int id = handOrder[i];
+			if (Hand.faceOf(id) == face && (cards & Hand.bit(id)) != 0) {
+				return id;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,142 @@
+package core.ai;
+
+import core.card.Card.FaceValue;
+import core.card.CardComparator;
+import core.card.Hand;
+import game.main.Main;
+
+/**
+ * The original computer player. It bids its trumps plus its other aces,
+ * and plays by a fixed set of rules: lead high when it still wants
+ * tricks, follow high only when that can win, and throw its lowest cards
+ * once its bid is made.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class HeuristicStrategy implements BotStrategy {
+
+	@Override
+	public int bid(GameView view) {
+		return bid(view.getHand(), view.getTrump(), view.getHandSize(), view.getTotalBids());
+	}
+
+	/**
+	 * The bidding rule on its own, for playouts that need the other
+	 * seats' bids.
+	 * @param hand the hand, see Hand
+	 * @param trump the trump suit value
+	 * @param handSize the number of cards in hand
+	 * @param totalBids the sum of the bids made before this one
+	 * @return the bid
+	 */
+	public static int bid(long hand, int trump, int handSize, int totalBids) {
+		long trumps = Hand.suitMask(trump);
+
+		// analyze how many trump cards and high value cards
+		int trumpCards = Hand.count(hand & trumps);
+		int highCards = Hand.count(hand & ~trumps & Hand.faceMask(FaceValue.ACE.getValue()));
+
+		int betTotal = trumpCards + highCards;
+
+		// if cantBid == betTotal, then change the bid
+		if (betTotal == handSize - totalBids) {
+			if (betTotal > 0) {
+				betTotal--;
+			} else {
+				betTotal++;
+			}
+		}
+		return betTotal;
+	}
+
+	@Override
+	public int play(GameView view) {
+		// if there is only 1 card in hand, play it
+		if (view.getHandSize() <= 1) {
+			return view.getHandCard(0);
+		}
+
+		int trump = view.getTrump();
+		int seat = view.getSeat();
+
+		// determine if I want to win any more tricks
+		boolean winTrick = view.getBid(seat) > view.getTricks(seat);
+
+		// entire hand is playable
+		long playableCards = view.getHand();
+		int cardToPlay;
+		String reason;
+
+		// if I am playing the leading card
+		if (view.getTrickSize() == 0) {
+
+			// determine if I have any trump cards, and delete them from playable cards
+			long trumpCards = playableCards & Hand.suitMask(trump);
+			playableCards &= ~trumpCards;
+
+			if (winTrick) {
+				if (playableCards != 0) {
+					cardToPlay = view.getHighestCard(playableCards);
+					reason = "I am leading, I want a trick, and its the highest non trump";
+				} else {
+					cardToPlay = view.getHighestCard(trumpCards);
+					reason = "I am leading, I want a trick, and I only have trumps";
+				}
+			} else {
+				if (trumpCards != 0) {
+					cardToPlay = view.getLowestCard(trumpCards);
+					reason = "I am leading, don't want a trick, and want to sluff my trumps";
+				} else {
+					cardToPlay = view.getLowestCard(playableCards);
+					reason = "I am leading, don't want a trick, and I have no trumps";
+				}
+			}
+
+		// else someone else lead and I must follow suit
+		} else {
+
+			// if I have cards of lead suit, remove cards not of the lead suit.
+			// trumps are only set aside when leading, so when I can't follow
+			// every card is treated alike
+			int leadSuit = view.getLedSuit();
+			boolean hasLeadSuit = Hand.hasSuit(playableCards, leadSuit);
+			if (hasLeadSuit) {
+				playableCards &= Hand.suitMask(leadSuit);
+			}
+
+			// determine the highest card played before me
+			int highestCard = view.getTrickCard(
+					CardComparator.determineWinner(view.getTrick(), view.getTrickSize(), trump));
+
+			if (hasLeadSuit) {
+				if (winTrick) {
+					cardToPlay = view.getHighestCard(playableCards);
+					reason = "I match the leading suit and want a trick";
+					// if a higher card has been played, play the lowest card
+					if (CardComparator.isGreaterCard(highestCard, cardToPlay, trump)
+							&& Hand.count(playableCards) > 1) {
+						cardToPlay = view.getLowestCard(playableCards);
+						reason = "I match the leading suit, want a trick, and someone played a higher card";
+					}
+				} else {
+					cardToPlay = view.getLowestCard(playableCards);
+					reason = "I match the leading suit and want to sluff";
+				}
+			} else if (winTrick) {
+				// if I want to win more, get rid of the lowest card
+				cardToPlay = view.getLowestCard(playableCards);
+				reason = "I have no matches and want a future trick";
+			} else {
+				// if I want to sluff, get rid of the highest card I can
+				cardToPlay = view.getHighestCard(playableCards);
+				reason = "I have no matches and dont want a future trick";
+			}
+		}
+
+		if (Main.DEBUG) {
+			System.out.println(Hand.cardName(cardToPlay) + " because " + reason);
+		}
+		return cardToPlay;
+	}
+}
@@ -0,0 +1,384 @@
+package core.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import core.card.Hand;
+import core.player.ComputerPlayer;
+import game.main.Main;
+import util.GameClock;
+
+/**
+ * Plays cards by information set Monte Carlo tree search. Every
+ * iteration deals the cards this seat can't see to the other seats at
+ * random, keeping to the suits each has shown it is out of, then walks
+ * one shared tree of moves, choosing only among moves legal in that
+ * deal, and plays the rest of the hand out with PlayoutPolicy. Each
+ * move is credited with the hand score its player ended with, scaled to
+ * between 0 and 1. Tricks are won by CardComparator's ranks, through
+ * CompactState.
+ *
+ * The search is anytime: it runs until its iteration limit or its share
+ * of the decision time is used up, then plays the move tried most. Bids
+ * are made by another strategy.
+ *
+ * Near the end of a hand the search can hand over to DoubleDummySolver.
+ * Each sampled deal is then solved with every card known, and the move
+ * that leaves this seat able to force exactly its bid in the most deals
+ * is played. If no move can force it in any deal, the tree search runs
+ * as usual.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class IsmctsStrategy implements BotStrategy {
+
+	// iterations per card decision, and the share of the decision time to spend on them
+	private static final int DEFAULT_ITERATIONS = 20000;
+	private static final long DEFAULT_BUDGET_MILLIS = ComputerPlayer.DECISION_TIME * 3 / 4;
+
+	// how often the search checks the time
+	private static final int ITERATIONS_PER_CHECK = 64;
+
+	// deals tried before the voids seats have shown are given up on
+	private static final int DEAL_ATTEMPTS = 8;
+
+	// weight of exploration against the average reward
+	private static final double EXPLORATION = 0.7;
+
+	// deals solved per card when the solver plays the end of a hand
+	private static final int SOLVED_DEALS = 200;
+
+	// a solver for each thread, as each keeps its tables between solves
+	private static final ThreadLocal<DoubleDummySolver> SOLVERS = ThreadLocal.withInitial(DoubleDummySolver::new);
+
+	/**
+	 * A move in the tree, with the totals of the iterations that played it.
+	 */
+	private static final class Node {
+		private final Node parent;
+		private final int move;
+		private final int seat;
+		private final ArrayList<Node> children = new ArrayList<Node>(4);
+		private long childMoves;
+		private int visits;
+		private int available;
+		private double reward;
+
+		private Node(Node parent, int move, int seat) {
+			this.parent = parent;
+			this.move = move;
+			this.seat = seat;
+		}
+
+		private Node addChild(int move, int seat) {
+			Node child = new Node(this, move, seat);
+			children.add(child);
+			childMoves |= Hand.bit(move);
+			return child;
+		}
+
+		private double ucb() {
+			return reward / visits + EXPLORATION * Math.sqrt(Math.log(available) / visits);
+		}
+	}
+
+	private final int iterations;
+	private final long budgetMillis;
+	private final BotStrategy bidder;
+	private final int solveCards;
+
+	// iterations run and time spent over every search, for the rate
+	private final LongAdder totalIterations = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+
+	/**
+	 * Constructor for the default limits, bidding with HeuristicStrategy.
+	 */
+	public IsmctsStrategy() {
+		this(DEFAULT_ITERATIONS, DEFAULT_BUDGET_MILLIS, new HeuristicStrategy());
+	}
+
+	/**
+	 * Constructor
+	 * @param iterations the most iterations per card
+	 * @param budgetMillis the most time to spend per card, or 0 for no limit
+	 * @param bidder the strategy that makes the bids
+	 */
+	public IsmctsStrategy(int iterations, long budgetMillis, BotStrategy bidder) {
+		this(iterations, budgetMillis, bidder, 0);
+	}
+
+	/**
+	 * Constructor
+	 * @param iterations the most iterations per card
+	 * @param budgetMillis the most time to spend per card, or 0 for no limit
+	 * @param bidder the strategy that makes the bids
+	 * @param solveCards the hand size from which sampled deals are solved
+	 * rather than searched, or 0 never to solve them
+	 */
+	public IsmctsStrategy(int iterations, long budgetMillis, BotStrategy bidder, int solveCards) {
+		this.iterations = iterations;
+		this.budgetMillis = budgetMillis;
+		this.bidder = bidder;
+		this.solveCards = solveCards;
+	}
+
+	@Override
+	public int bid(GameView view) {
+		return bidder.bid(view);
+	}
+
+	@Override
+	public int play(GameView view) {
+		long legal = view.getLegalMoves();
+		if ((legal & (legal - 1)) == 0) {
+			return Long.numberOfTrailingZeros(legal);
+		}
+
+		// the budget is time on the table's clock, and the rate is measured in real time
+		GameClock clock = view.getClock();
+		long deadline = budgetMillis > 0 ? clock.millis() + budgetMillis : Long.MAX_VALUE;
+		long start = System.nanoTime();
+		SplittableRandom random = new SplittableRandom(positionSeed(view));
+		Node root = new Node(null, -1, -1);
+
+		int[] unseen = new int[Hand.count(view.getUnseen())];
+		int[] handSizes = handSizes(view);
+		int[] dealOrder = dealOrder(view);
+		long[] hands = new long[view.getSeats()];
+		int cardsPerSeat = view.getHandSize();
+		for (int s = 0; s < view.getSeats(); s++) {
+			cardsPerSeat += view.getTricks(s);
+		}
+
+		if (view.getHandSize() <= solveCards) {
+			int move = solve(view, legal, handSizes, dealOrder, unseen, hands, random, clock, deadline);
+			if (move >= 0) {
+				return move;
+			}
+		}
+
+		int n = 0;
+		while (n < iterations) {
+			if (n % ITERATIONS_PER_CHECK == 0 && n > 0 && clock.millis() > deadline) {
+				break;
+			}
+			determinize(view, handSizes, dealOrder, unseen, hands, random);
+			iterate(root, CompactState.of(view, hands), random, cardsPerSeat);
+			n++;
+		}
+		long elapsed = System.nanoTime() - start;
+		totalIterations.add(n);
+		totalNanos.add(elapsed);
+
+		Node best = null;
+		for (Node child : root.children) {
+			if (best == null || child.visits > best.visits) {
+				best = child;
+			}
+		}
+		if (Main.DEBUG) {
+			System.out.println(String.format("%s after %d iterations (%.0f/sec)",
+					Hand.cardName(best.move), n, n / (elapsed / 1.0E9)));
+		}
+		return best.move;
+	}
+
+	/**
+	 * Runs one iteration: select down the tree among moves legal in this
+	 * deal, add one new move, play out the rest and credit the path.
+	 */
+	private static void iterate(Node root, CompactState state, SplittableRandom random, int cardsPerSeat) {
+		Node node = root;
+		while (!state.isHandOver()) {
+			long legal = state.getLegalMoves();
+			long untried = legal & ~node.childMoves;
+			if (untried != 0) {
+				int move = nthBit(untried, random.nextInt(Long.bitCount(untried)));
+				node = node.addChild(move, state.getTurn());
+				state.playCard(move);
+				break;
+			}
+			Node best = null;
+			double bestScore = Double.NEGATIVE_INFINITY;
+			for (Node child : node.children) {
+				if ((legal & Hand.bit(child.move)) != 0) {
+					child.available++;
+					double score = child.ucb();
+					if (score > bestScore) {
+						best = child;
+						bestScore = score;
+					}
+				}
+			}
+			node = best;
+			state.playCard(node.move);
+		}
+		PlayoutPolicy.playOut(state);
+
+		// scale hand scores, from -5 a trick missed to 10 + 2 a trick made, to 0 to 1
+		double min = -5.0 * cardsPerSeat;
+		double range = 10.0 + 2.0 * cardsPerSeat - min;
+		for (; node != root; node = node.parent) {
+			node.visits++;
+			node.reward += (state.getHandScore(node.seat) - min) / range;
+		}
+		root.visits++;
+	}
+
+	/**
+	 * Solves sampled deals for the legal move that leaves this seat able to
+	 * force exactly its bid in the most of them.
+	 * @return the move, or -1 if no move can force the bid in any deal
+	 */
+	private static int solve(GameView view, long legal, int[] handSizes, int[] dealOrder, int[] unseen,
+			long[] hands, SplittableRandom random, GameClock clock, long deadline) {
+		DoubleDummySolver solver = SOLVERS.get();
+		int seat = view.getSeat();
+		int target = view.getBid(seat);
+		int[] made = new int[Hand.DECK_SIZE];
+		for (int n = 0; n < SOLVED_DEALS; n++) {
+			if (n > 0 && clock.millis() > deadline) {
+				break;
+			}
+			determinize(view, handSizes, dealOrder, unseen, hands, random);
+			CompactState state = CompactState.of(view, hands);
+			for (long l = legal; l != 0; l &= l - 1) {
+				int move = Long.numberOfTrailingZeros(l);
+				long token = state.playCard(move);
+				if (solver.canTakeExactly(state, seat, target)) {
+					made[move]++;
+				}
+				state.undoCard(token);
+			}
+		}
+
+		int best = -1;
+		for (long l = legal; l != 0; l &= l - 1) {
+			int move = Long.numberOfTrailingZeros(l);
+			if (made[move] > 0 && (best < 0 || made[move] > made[best])) {
+				best = move;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * @return the number of cards each seat holds, counting the cards they played to this trick as gone
+	 */
+	private static int[] handSizes(GameView view) {
+		int[] sizes = new int[view.getSeats()];
+		for (int s = 0; s < sizes.length; s++) {
+			sizes[s] = view.getHandSize();
+		}
+		for (int i = 0; i < view.getTrickSize(); i++) {
+			sizes[(view.getLeader() + i) % sizes.length]--;
+		}
+		return sizes;
+	}
+
+	/**
+	 * Deals the unseen cards to the other seats at random, giving no seat
+	 * a card of a suit it has shown it is out of. The seats out of the most
+	 * suits are dealt first, and if the cards left can't fill a hand the
+	 * deal is tried again, and in the end made without the voids.
+	 */
+	private static void determinize(GameView view, int[] handSizes, int[] dealOrder, int[] unseen, long[] hands,
+			SplittableRandom random) {
+		for (int attempt = 0; attempt < DEAL_ATTEMPTS; attempt++) {
+			if (deal(view, handSizes, dealOrder, unseen, hands, random, true)) {
+				return;
+			}
+		}
+		deal(view, handSizes, dealOrder, unseen, hands, random, false);
+	}
+
+	/**
+	 * @return false if a seat couldn't be dealt a full hand without breaking its voids
+	 */
+	private static boolean deal(GameView view, int[] handSizes, int[] dealOrder, int[] unseen, long[] hands,
+			SplittableRandom random, boolean keepVoids) {
+		long u = view.getUnseen();
+		int left = 0;
+		for (; u != 0; u &= u - 1) {
+			unseen[left++] = Long.numberOfTrailingZeros(u);
+		}
+		for (int s : dealOrder) {
+			if (s == view.getSeat()) {
+				hands[s] = view.getHand();
+				continue;
+			}
+			// the cards the seat may hold go to the front
+			int voids = keepVoids ? view.getVoids(s) : 0;
+			int allowed = 0;
+			for (int i = 0; i < left; i++) {
+				if ((voids >>> Hand.suitOf(unseen[i]) & 1) == 0) {
+					swap(unseen, i, allowed++);
+				}
+			}
+			if (allowed < handSizes[s]) {
+				return false;
+			}
+			long hand = 0;
+			for (int c = 0; c < handSizes[s]; c++) {
+				int j = random.nextInt(allowed);
+				hand |= Hand.bit(unseen[j]);
+				swap(unseen, j, --allowed);
+				swap(unseen, allowed, --left);
+			}
+			hands[s] = hand;
+		}
+		return true;
+	}
+
+	/**
+	 * @return the seats in the order to deal to, those out of the most suits first
+	 */
+	private static int[] dealOrder(GameView view) {
+		Integer[] order = new Integer[view.getSeats()];
+		for (int s = 0; s < order.length; s++) {
+			order[s] = s;
+		}
+		Arrays.sort(order, (a, b) -> Integer.bitCount(view.getVoids(b)) - Integer.bitCount(view.getVoids(a)));
+		int[] seats = new int[order.length];
+		for (int s = 0; s < seats.length; s++) {
+			seats[s] = order[s];
+		}
+		return seats;
+	}
+
+	private static void swap(int[] cards, int i, int j) {
+		int card = cards[i];
+		cards[i] = cards[j];
+		cards[j] = card;
+	}
+
+	private static int nthBit(long bits, int n) {
+		for (int i = 0; i < n; i++) {
+			bits &= bits - 1;
+		}
+		return Long.numberOfTrailingZeros(bits);
+	}
+
+	private static long positionSeed(GameView view) {
+		long h = view.getHand() * 0x9E3779B97F4A7C15L ^ view.getCardsPlayed();
+		h ^= (long) view.getSeat() << 56 ^ (long) view.getLeader() << 48 ^ (long) view.getTrump() << 40;
+		h ^= h >>> 31;
+		return h * 0xBF58476D1CE4E5B9L;
+	}
+
+	/**
+	 * @return the average search rate over every card played so far
+	 */
+	public double getIterationsPerSecond() {
+		long nanos = totalNanos.sum();
+		return nanos == 0 ? 0 : totalIterations.sum() / (nanos / 1.0E9);
+	}
+
+	public long getTotalIterations() {
+		return totalIterations.sum();
+	}
+}
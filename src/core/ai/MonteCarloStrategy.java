@@ -0,0 +1,191 @@
+package core.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import core.card.Hand;
+import core.player.ComputerPlayer;
+import util.GameClock;
+
+/**
+ * Bids by sampling. Each sample deals the cards this seat has not seen
+ * to the other seats at random, then plays the hand out once for every
+ * bid this seat could make, with the seats still to bid and every card
+ * played by PlayoutPolicy. The bid with the best average hand score, as
+ * Player.tallyScore counts it, is made. The dealer never considers the
+ * bid that would bring the total to the number of cards.
+ *
+ * Samples are split over a fork join pool and stop at a sample limit or
+ * a time limit, whichever comes first. Cards are played by another
+ * strategy.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class MonteCarloStrategy implements BotStrategy {
+
+	// samples per bid decision, and the share of the decision time to spend on them
+	private static final int DEFAULT_SAMPLES = 2000;
+	private static final long DEFAULT_BUDGET_MILLIS = ComputerPlayer.DECISION_TIME * 3 / 4;
+
+	// how often a sampling task checks the time
+	private static final int SAMPLES_PER_CHECK = 32;
+
+	private final int samples;
+	private final long budgetMillis;
+	private final ForkJoinPool pool;
+	private final BotStrategy player;
+
+	/**
+	 * Constructor for the default sample and time limits, sampling on the
+	 * common pool and playing cards with HeuristicStrategy.
+	 */
+	public MonteCarloStrategy() {
+		this(DEFAULT_SAMPLES, DEFAULT_BUDGET_MILLIS, ForkJoinPool.commonPool(), new HeuristicStrategy());
+	}
+
+	/**
+	 * Constructor
+	 * @param samples the most deals to sample per bid
+	 * @param budgetMillis the most time to spend per bid, or 0 for no limit
+	 * @param pool the pool to sample on
+	 * @param player the strategy that plays the cards
+	 */
+	public MonteCarloStrategy(int samples, long budgetMillis, ForkJoinPool pool, BotStrategy player) {
+		this.samples = samples;
+		this.budgetMillis = budgetMillis;
+		this.pool = pool;
+		this.player = player;
+	}
+
+	@Override
+	public int bid(GameView view) {
+		double[] scores = expectedScores(view);
+		int forbidden = view.isDealer() ? view.getHandSize() - view.getTotalBids() : -1;
+		int best = -1;
+		for (int bid = 0; bid < scores.length; bid++) {
+			if (bid != forbidden && (best < 0 || scores[bid] > scores[best])) {
+				best = bid;
+			}
+		}
+		return best;
+	}
+
+	@Override
+	public int play(GameView view) {
+		return player.play(view);
+	}
+
+	/**
+	 * Estimates the hand score each bid would earn.
+	 * @param view the bidding seat's view
+	 * @return the average score for each bid from 0 to the hand size
+	 */
+	public double[] expectedScores(GameView view) {
+		// the budget is time on the table's clock, so a faster clock gives less real time
+		GameClock clock = view.getClock();
+		long deadline = budgetMillis > 0 ? clock.millis() + budgetMillis : Long.MAX_VALUE;
+		int tasks = Math.max(1, Math.min(pool.getParallelism(), samples / SAMPLES_PER_CHECK));
+
+		// the same position always draws the same deals, so seeded games replay
+		SplittableRandom random = new SplittableRandom(positionSeed(view));
+		List<ForkJoinTask<double[]>> running = new ArrayList<ForkJoinTask<double[]>>();
+		for (int t = 0; t < tasks; t++) {
+			SplittableRandom taskRandom = random.split();
+			int share = samples / tasks + (t < samples % tasks ? 1 : 0);
+			running.add(pool.submit(() -> sample(view, share, clock, deadline, taskRandom)));
+		}
+
+		int bids = view.getHandSize() + 1;
+		double[] totals = new double[bids + 1];
+		for (ForkJoinTask<double[]> task : running) {
+			double[] part = task.join();
+			for (int i = 0; i < totals.length; i++) {
+				totals[i] += part[i];
+			}
+		}
+		double n = Math.max(1, totals[bids]);
+		double[] scores = new double[bids];
+		for (int bid = 0; bid < bids; bid++) {
+			scores[bid] = totals[bid] / n;
+		}
+		return scores;
+	}
+
+	/**
+	 * Plays out a number of sampled deals.
+	 * @return the total score of each bid, followed by the number of samples
+	 */
+	private static double[] sample(GameView view, int count, GameClock clock, long deadline,
+			SplittableRandom random) {
+		int seat = view.getSeat();
+		int seats = view.getSeats();
+		int handSize = view.getHandSize();
+		int bids = handSize + 1;
+		double[] totals = new double[bids + 1];
+
+		int[] unseen = new int[Hand.count(view.getUnseen())];
+		long u = view.getUnseen();
+		for (int i = 0; i < unseen.length; i++) {
+			unseen[i] = Long.numberOfTrailingZeros(u);
+			u &= u - 1;
+		}
+
+		long[] hands = new long[seats];
+		for (int n = 0; n < count; n++) {
+			if (n % SAMPLES_PER_CHECK == 0 && n > 0 && clock.millis() > deadline) {
+				break;
+			}
+			deal(view, unseen, hands, random);
+			CompactState start = new CompactState(hands, view.getTrump(), view.getDealer());
+			// bids already made, in turn order from the dealer's left
+			while (start.getTurn() != seat) {
+				start.bid(view.getBid(start.getTurn()));
+			}
+			for (int bid = 0; bid < bids; bid++) {
+				CompactState state = start.copy();
+				state.bid(bid);
+				PlayoutPolicy.playOut(state);
+				totals[bid] += state.getHandScore(seat);
+			}
+			totals[bids]++;
+		}
+		return totals;
+	}
+
+	/**
+	 * Deals the unseen cards to the other seats, a hand each.
+	 */
+	private static void deal(GameView view, int[] unseen, long[] hands, SplittableRandom random) {
+		int handSize = view.getHandSize();
+		int left = unseen.length;
+		for (int s = 0; s < hands.length; s++) {
+			if (s == view.getSeat()) {
+				hands[s] = view.getHand();
+				continue;
+			}
+			long hand = 0;
+			for (int c = 0; c < handSize; c++) {
+				// partial Fisher-Yates, moving each card drawn past the end of what is left
+				int j = random.nextInt(left);
+				int id = unseen[j];
+				unseen[j] = unseen[left - 1];
+				unseen[left - 1] = id;
+				left--;
+				hand |= Hand.bit(id);
+			}
+			hands[s] = hand;
+		}
+	}
+
+	private static long positionSeed(GameView view) {
+		long h = view.getHand() * 0x9E3779B97F4A7C15L;
+		h ^= (long) view.getSeat() << 56 ^ (long) view.getDealer() << 48
+				^ (long) view.getTrump() << 40 ^ (long) view.getTotalBids() << 32 ^ view.getTopCard();
+		h ^= h >>> 31;
+		return h * 0xBF58476D1CE4E5B9L;
+	}
+}
@@ -0,0 +1,109 @@
+package core.ai;
+
+import core.card.CardComparator;
+import core.card.Hand;
+
+/**
+ * A fast policy for playing hands out to the end inside a search. It
+ * follows the same rules as HeuristicStrategy, but works straight on a
+ * CompactState's bitboards, and breaks ties between equal faces by suit
+ * rather than by the order cards are held.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public final class PlayoutPolicy {
+
+	private PlayoutPolicy() {
+	}
+
+	/**
+	 * Bids for the seat whose turn it is, by HeuristicStrategy's rule.
+	 * @param state a position during bidding
+	 * @return the bid
+	 */
+	public static int bid(CompactState state) {
+		return HeuristicStrategy.bid(state.getHand(state.getTurn()), state.getTrump(),
+				state.getCardsPerSeat(), state.getTotalBids());
+	}
+
+	/**
+	 * Chooses a card for the seat whose turn it is.
+	 * @param state a position during play
+	 * @return the card id, one of state.getLegalMoves()
+	 */
+	public static int play(CompactState state) {
+		long legal = state.getLegalMoves();
+		if ((legal & (legal - 1)) == 0) {
+			return Long.numberOfTrailingZeros(legal);
+		}
+		int seat = state.getTurn();
+		int trump = state.getTrump();
+		long hand = state.getHand(seat);
+		boolean winTrick = state.getBid(seat) > state.getTricks(seat);
+		int led = state.getLedSuit();
+
+		// leading: trumps are kept back when chasing tricks, and thrown first when not
+		if (led == Hand.NO_SUIT) {
+			long trumps = hand & Hand.suitMask(trump);
+			long others = hand & ~trumps;
+			if (winTrick) {
+				return highest(others != 0 ? others : trumps);
+			}
+			return lowest(trumps != 0 ? trumps : others);
+		}
+
+		// following suit: go high only if that can beat the card winning so far
+		if (Hand.hasSuit(hand, led)) {
+			if (!winTrick) {
+				return lowest(legal);
+			}
+			int high = highest(legal);
+			return CardComparator.isGreaterCard(winningCard(state), high, trump) ? lowest(legal) : high;
+		}
+
+		// void in the suit led
+		return winTrick ? lowest(hand) : highest(hand);
+	}
+
+	/**
+	 * Finishes the bidding, if need be, and plays the hand out.
+	 * @param state the position, which is played out in place
+	 */
+	public static void playOut(CompactState state) {
+		while (state.isBidding()) {
+			state.bid(bid(state));
+		}
+		while (!state.isHandOver()) {
+			state.playCard(play(state));
+		}
+	}
+
+	/**
+	 * @param state a position part way through a trick
+	 * @return the card winning the trick so far
+	 */
+	private static int winningCard(CompactState state) {
+		int led = state.getLedSuit();
+		int trump = state.getTrump();
+		int best = state.getTrickCard(0);
+		int bestRank = CardComparator.rank(best, led, trump);
+		for (int i = 1; i < state.getTrickSize(); i++) {
+			int card = state.getTrickCard(i);
+			int rank = CardComparator.rank(card, led, trump);
+			if (rank > bestRank) {
+				best = card;
+				bestRank = rank;
+			}
+		}
+		return best;
+	}
+
+	private static int highest(long cards) {
+		return Long.numberOfTrailingZeros(cards & Hand.faceMask(Hand.highestFace(cards)));
+	}
+
+	private static int lowest(long cards) {
+		return Long.numberOfTrailingZeros(cards & Hand.faceMask(Hand.lowestFace(cards)));
+	}
+}
@@ -0,0 +1,51 @@
+package core.ai;
+
+/**
+ * Bids from the precomputed BidTable, so a bid costs one lookup and no
+ * search. Hands the table has no odds for are bid by the heuristic rule.
+ * Cards are played by another strategy.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class TableBidStrategy implements BotStrategy {
+
+	private final BidTable table;
+	private final BotStrategy player;
+
+	/**
+	 * Constructor for the table on the classpath, playing cards with
+	 * HeuristicStrategy.
+	 */
+	public TableBidStrategy() {
+		this(BidTable.getDefault(), new HeuristicStrategy());
+	}
+
+	/**
+	 * Constructor
+	 * @param table the table to bid from
+	 * @param player the strategy that plays the cards
+	 */
+	public TableBidStrategy(BidTable table, BotStrategy player) {
+		this.table = table;
+		this.player = player;
+	}
+
+	@Override
+	public int bid(GameView view) {
+		int seats = view.getSeats();
+		int position = (view.getSeat() - view.getDealer() - 1 + 2 * seats) % seats;
+		int entry = BidTable.entry(view.getHand(), view.getTrump(), position, seats, view.getTotalBids());
+		int forbidden = view.isDealer() ? view.getHandSize() - view.getTotalBids() : -1;
+		int bid = table.bid(entry, forbidden);
+		if (bid < 0) {
+			return HeuristicStrategy.bid(view.getHand(), view.getTrump(), view.getHandSize(), view.getTotalBids());
+		}
+		return bid;
+	}
+
+	@Override
+	public int play(GameView view) {
+		return player.play(view);
+	}
+}
@@ -1,39 +1,36 @@
 package core.card;
 
-import java.awt.Graphics;
-import java.awt.Point;
-import java.awt.image.BufferedImage;
-import java.io.IOException;
-
-import javax.imageio.ImageIO;
-
 /**
- * A class which stores a card's suit and face value.
+ * A class which stores a card's suit and face value. There is exactly one
+ * Card object for each of the 52 cards, shared by every game, and it never
+ * changes. Where a card is drawn and how it moves belong to CardSprite.
  * 
  * @author Kyle Holub
  * @version 1.0
  * @since 1.0 8/17/2015 initial version
  */
-public class Card {
+public final class Card {
 
-	private static BufferedImage cardBackImage;
+	// every card, indexed by card id
+	private static final Card[] CARDS = new Card[Hand.DECK_SIZE];
+
+	static {
+		for (Suit s : Suit.values()) {
+			for (FaceValue v : FaceValue.values()) {
+				Card card = new Card(s, v);
+				CARDS[card.id] = card;
+			}
+		}
+	}
 
 	// suit
-	private Suit suit;
+	private final Suit suit;
 
 	// face value
-	private FaceValue value;
-
-	// image
-	private BufferedImage cardImage;
-
-	// position
-	private float posX;
-	private float posY;
+	private final FaceValue value;
 
-	// home position
-	private int homeX;
-	private int homeY;
+	// card id, suit value * 13 + face value
+	private final int id;
 
 	/**
 	 * Constructor
@@ -43,113 +40,31 @@ public class Card {
 	 * @param value
 	 *            FaceValue
 	 */
-	public Card(Suit suit, FaceValue value, BufferedImage cardImage) {
+	private Card(Suit suit, FaceValue value) {
 		this.suit = suit;
 		this.value = value;
-		this.cardImage = cardImage;
-		try {
-			cardBackImage = ImageIO.read(getClass().getResourceAsStream("/images/cardback.png"));
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
-	}
-
-	public static BufferedImage getCardBackImage() {
-		return cardBackImage;
+		this.id = suit.getValue() * Hand.SUIT_SIZE + value.getValue();
 	}
 
 	/**
-	 * Constructor
+	 * Gets the card with the given suit and face value.
 	 * 
-	 * @param card
+	 * @param suit Suit
+	 * @param value FaceValue
+	 * @return the card
 	 */
-	public Card(Card card) {
-		this.suit = card.suit;
-		this.value = card.value;
-		this.cardImage = card.cardImage;
+	public static Card get(Suit suit, FaceValue value) {
+		return CARDS[suit.getValue() * Hand.SUIT_SIZE + value.getValue()];
 	}
 
 	/**
-	 * No Arg Constructor
+	 * Gets the card with the given id.
+	 * 
+	 * @param id the card id, from 0 to 51
+	 * @return the card
 	 */
-	public Card() {
-
-	}
-
-	public void updateTowardsHome(float speed) {
-		if (!isHome()) {
-			float x = 0, y = 0;
-
-			float dx = getHomeX() - getX();
-			dx *= speed;
-			x = dx;
-
-			float dy = getHomeY() - getY();
-			dy *= speed;
-			y = dy;
-			translate(x, y);
-		}
-	}
-
-	public void setPos(int x, int y) {
-		this.posX = x;
-		this.posY = y;
-	}
-
-	public void setHome(int x, int y) {
-		this.homeX = x;
-		this.homeY = y;
-	}
-
-	public int getHomeX() {
-		return homeX;
-	}
-
-	public int getHomeY() {
-		return homeY;
-	}
-
-	public boolean isHome() {
-		if (Math.abs((getHomeX() - getX())) < 2) {
-			posX = homeX;
-		}
-		if (Math.abs((getHomeY() - getY())) < 2) {
-			posY = homeY;
-		}
-		if (posX == homeX && posY == homeY) {
-			setPos(homeX, homeY);
-			return true;
-		}
-		return false;
-	}
-
-	public void translate(float x, float y) {
-		posX += x;
-		posY += y;
-	}
-
-	public void draw(Graphics g) {
-		g.drawImage(this.getImage(), (int) posX, (int) posY, null);
-	}
-
-	public Point getPosition() {
-		return new Point((int) posX, (int) posY);
-	}
-
-	public void setX(float x) {
-		this.posX = x;
-	}
-
-	public void setY(float y) {
-		this.posY = y;
-	}
-
-	public float getX() {
-		return posX;
-	}
-
-	public float getY() {
-		return posY;
+	public static Card fromId(int id) {
+		return CARDS[id];
 	}
 
 	/**
@@ -170,8 +85,14 @@ public class Card {
 		return value;
 	}
 
-	public BufferedImage getImage() {
-		return cardImage;
+	/**
+	 * Gets the card id, suit value * 13 + face value, which is also the
+	 * card's bit in a Hand.
+	 * 
+	 * @return the id, from 0 to 51
+	 */
+	public int getId() {
+		return id;
 	}
 
 	/**
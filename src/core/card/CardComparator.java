@@ -13,6 +13,78 @@ import core.card.Card.Suit;
  */
 public class CardComparator {
 	
+	// trick ranks of every card, for each pair of lead suit and trump suit
+	private static final byte[] RANKS = new byte[4 * 4 * Hand.DECK_SIZE];
+	
+	// rank offsets that put trumps above the lead suit, and the lead suit above the rest
+	private static final int LEAD_RANK = 16;
+	private static final int TRUMP_RANK = 32;
+	
+	static {
+		for (int lead = 0; lead < 4; lead++) {
+			for (int trump = 0; trump < 4; trump++) {
+				int base = rankBase(lead, trump);
+				for (int card = 0; card < Hand.DECK_SIZE; card++) {
+					int suit = Hand.suitOf(card);
+					int face = Hand.faceOf(card);
+					if (suit == trump) {
+						RANKS[base + card] = (byte) (TRUMP_RANK + face);
+					} else if (suit == lead) {
+						RANKS[base + card] = (byte) (LEAD_RANK + face);
+					}
+				}
+			}
+		}
+	}
+	
+	private static int rankBase(int leadSuit, int trumpSuit) {
+		return ((leadSuit << 2) | trumpSuit) * Hand.DECK_SIZE;
+	}
+	
+	/**
+	 * Gets a card's rank within a trick. A card with a higher rank beats 
+	 * one with a lower rank, and cards that can never win rank 0.
+	 * @param cardId the card id
+	 * @param leadSuit the suit value led
+	 * @param trumpSuit the trump suit value
+	 * @return the rank
+	 */
+	public static int rank(int cardId, int leadSuit, int trumpSuit) {
+		return RANKS[rankBase(leadSuit, trumpSuit) + cardId];
+	}
+	
+	/**
+	 * Determines the winner of a trick of card ids.
+	 * @param cards the card ids in the order they were played
+	 * @param count the number of cards played
+	 * @param trumpSuit the trump suit value
+	 * @return the index in cards of the winning card
+	 */
+	public static int determineWinner(int[] cards, int count, int trumpSuit) {
+		int base = rankBase(Hand.suitOf(cards[0]), trumpSuit);
+		int winner = 0;
+		int best = RANKS[base + cards[0]];
+		for (int i = 1; i < count; i++) {
+			int rank = RANKS[base + cards[i]];
+			int better = (best - rank) >> 31; // -1 if rank > best, else 0
+			best += (rank - best) & better;
+			winner += (i - winner) & better;
+		}
+		return winner;
+	}
+	
+	/**
+	 * Determines the winning seat of a complete trick of card ids.
+	 * @param cards the card ids in the order they were played, one per seat
+	 * @param leader the seat that led
+	 * @param trumpSuit the trump suit value
+	 * @return the winning seat
+	 */
+	public static int determineWinningSeat(int[] cards, int leader, int trumpSuit) {
+		int seat = leader + determineWinner(cards, cards.length, trumpSuit);
+		return seat >= cards.length ? seat - cards.length : seat;
+	}
+	
 	/**
 	 * Determines if two specified cards are of the same suit.
 	 * @param card1 a Card
@@ -47,16 +119,33 @@ public class CardComparator {
 	 * @return the winning card
 	 */
 	public static PlayerCard determineWinner(ArrayList<PlayerCard> cards, Suit trumpSuit) {
-		PlayerCard startingCard = cards.get(0);
-		PlayerCard winner = startingCard;
+		int base = rankBase(cards.get(0).getSuit().getValue(), trumpSuit.getValue());
+		PlayerCard winner = cards.get(0);
+		int best = RANKS[base + winner.getId()];
 		for (int i = 1; i < cards.size(); i++) {
-			if (isGreaterCard(cards.get(i), winner, trumpSuit)) {
+			int rank = RANKS[base + cards.get(i).getId()];
+			if (rank > best) {
+				best = rank;
 				winner = cards.get(i);
 			}
 		}
 		return winner;
 	}
 	
+	/**
+	 * Gets the greater card, the same way as isGreaterCard(Card, Card, Suit).
+	 * @param card1 a card id
+	 * @param card2 the card id to be compared to
+	 * @param trumpSuit the trump suit value
+	 * @return true if card1 is more valuable than card2
+	 */
+	public static boolean isGreaterCard(int card1, int card2, int trumpSuit) {
+		if (Hand.suitOf(card1) == Hand.suitOf(card2)) {
+			return Hand.faceOf(card1) > Hand.faceOf(card2);
+		}
+		return Hand.suitOf(card1) == trumpSuit;
+	}
+	
 	/**
 	 * Gets the greater card
 	 * @param card1 a Card
@@ -0,0 +1,123 @@
+package core.card;
+
+import java.awt.Graphics;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+/**
+ * The position and movement of a card on screen. Only the user interface
+ * needs sprites; game logic works with Card.
+ * 
+ * @version 1.0
+ * @since 1.0
+ */
+public class CardSprite {
+
+	private static BufferedImage cardBackImage;
+
+	// position
+	private float posX;
+	private float posY;
+
+	// home position
+	private int homeX;
+	private int homeY;
+
+	public static BufferedImage getCardBackImage() {
+		// loaded on first use so sprites can be built without any images
+		if (cardBackImage == null) {
+			try {
+				cardBackImage = ImageIO.read(CardSprite.class.getResourceAsStream("/images/cardback.png"));
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		return cardBackImage;
+	}
+
+	public void updateTowardsHome(float speed) {
+		if (!isHome()) {
+			float x = 0, y = 0;
+
+			float dx = getHomeX() - getX();
+			dx *= speed;
+			x = dx;
+
+			float dy = getHomeY() - getY();
+			dy *= speed;
+			y = dy;
+			translate(x, y);
+		}
+	}
+
+	public void setPos(int x, int y) {
+		this.posX = x;
+		this.posY = y;
+	}
+
+	public void setHome(int x, int y) {
+		this.homeX = x;
+		this.homeY = y;
+	}
+
+	public int getHomeX() {
+		return homeX;
+	}
+
+	public int getHomeY() {
+		return homeY;
+	}
+
+	public boolean isHome() {
+		if (Math.abs((getHomeX() - getX())) < 2) {
+			posX = homeX;
+		}
+		if (Math.abs((getHomeY() - getY())) < 2) {
+			posY = homeY;
+		}
+		if (posX == homeX && posY == homeY) {
+			setPos(homeX, homeY);
+			return true;
+		}
+		return false;
+	}
+
+	public void translate(float x, float y) {
+		posX += x;
+		posY += y;
+	}
+
+	public void draw(Graphics g) {
+		g.drawImage(this.getImage(), (int) posX, (int) posY, null);
+	}
+
+	public Point getPosition() {
+		return new Point((int) posX, (int) posY);
+	}
+
+	public void setX(float x) {
+		this.posX = x;
+	}
+
+	public void setY(float y) {
+		this.posY = y;
+	}
+
+	public float getX() {
+		return posX;
+	}
+
+	public float getY() {
+		return posY;
+	}
+
+	/**
+	 * @return the image drawn for this sprite, the card back unless overridden
+	 */
+	public BufferedImage getImage() {
+		return getCardBackImage();
+	}
+}
@@ -0,0 +1,177 @@
+package core.card;
+
+/**
+ * Maps deals to dense indexes and back, using the combinatorial number
+ * system. A hand of k cards, a set of card ids c1 < c2 < ... < ck, has the
+ * colex rank C(c1, 1) + C(c2, 2) + ... + C(ck, k), which numbers every
+ * k-card hand from 0 to C(52, k) - 1.
+ *
+ * A full deal is ranked the way Deck deals it: each seat's hand is ranked
+ * among the cards the earlier seats left, and the top card among the cards
+ * left after that. The ranks are combined as digits of a mixed radix
+ * number, seat 0 lowest. So every deal of a given size has exactly one
+ * index, and a range of indexes can be split across workers.
+ *
+ * Hands of any size fit in a long. Full deals only fit while there are
+ * few cards per seat, three each at a four seat table, and the methods
+ * for them throw ArithmeticException past that.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class DealCodec {
+
+	// binomial coefficients C(n, k) for n and k up to the deck size
+	private static final long[][] CHOOSE = new long[Hand.DECK_SIZE + 1][Hand.DECK_SIZE + 1];
+
+	static {
+		for (int n = 0; n <= Hand.DECK_SIZE; n++) {
+			CHOOSE[n][0] = 1;
+			for (int k = 1; k <= n; k++) {
+				CHOOSE[n][k] = CHOOSE[n - 1][k - 1] + CHOOSE[n - 1][k];
+			}
+		}
+	}
+
+	private DealCodec() {
+	}
+
+	/**
+	 * @param n the number of cards to choose from, up to 52
+	 * @param k the number of cards chosen
+	 * @return C(n, k), or 0 if k is out of range
+	 */
+	public static long choose(int n, int k) {
+		return k < 0 || k > n ? 0 : CHOOSE[n][k];
+	}
+
+	/**
+	 * @param hand a hand, see Hand
+	 * @return the hand's rank among all hands of the same size
+	 */
+	public static long rankHand(long hand) {
+		return rankHand(hand, Hand.FULL_DECK);
+	}
+
+	/**
+	 * @param rank the rank
+	 * @param cards the number of cards in the hand
+	 * @return the hand with that rank
+	 */
+	public static long unrankHand(long rank, int cards) {
+		return unrankHand(rank, cards, Hand.FULL_DECK);
+	}
+
+	/**
+	 * Ranks a hand among the hands of the same size that can be made from
+	 * some of the cards, numbering those cards from 0 in id order.
+	 * @param hand a hand, all of whose cards are available
+	 * @param available the cards the hand was chosen from
+	 * @return the hand's rank
+	 */
+	public static long rankHand(long hand, long available) {
+		long rank = 0;
+		int i = 1;
+		for (long h = hand; h != 0; h &= h - 1, i++) {
+			long below = (h & -h) - 1;
+			rank += CHOOSE[Long.bitCount(available & below)][i];
+		}
+		return rank;
+	}
+
+	/**
+	 * The inverse of rankHand(hand, available).
+	 * @param rank the rank
+	 * @param cards the number of cards in the hand
+	 * @param available the cards the hand was chosen from
+	 * @return the hand with that rank
+	 */
+	public static long unrankHand(long rank, int cards, long available) {
+		if (rank < 0 || rank >= choose(Long.bitCount(available), cards)) {
+			throw new IllegalArgumentException("rank " + rank + " out of range");
+		}
+		long hand = 0;
+		int c = Long.bitCount(available);
+		for (int i = cards; i > 0; i--) {
+			// the largest position c with C(c, i) <= rank
+			do {
+				c--;
+			} while (CHOOSE[c][i] > rank);
+			rank -= CHOOSE[c][i];
+			hand |= 1L << select(available, c);
+		}
+		return hand;
+	}
+
+	/**
+	 * @param cards some cards
+	 * @param n a position, from 0
+	 * @return the id of the nth lowest card
+	 */
+	private static int select(long cards, int n) {
+		for (int i = 0; i < n; i++) {
+			cards &= cards - 1;
+		}
+		return Long.numberOfTrailingZeros(cards);
+	}
+
+	/**
+	 * @param seats the number of seats
+	 * @param cardsPerSeat the cards dealt to each seat
+	 * @return the number of different deals, counting the top card
+	 * @throws ArithmeticException if the count does not fit in a long
+	 */
+	public static long dealCount(int seats, int cardsPerSeat) {
+		long count = 1;
+		int left = Hand.DECK_SIZE;
+		for (int s = 0; s < seats; s++) {
+			count = Math.multiplyExact(count, choose(left, cardsPerSeat));
+			left -= cardsPerSeat;
+		}
+		return Math.multiplyExact(count, left);
+	}
+
+	/**
+	 * @param hands each seat's hand, all the same size
+	 * @param topCard the id of the top card
+	 * @return the deal's index, from 0 to dealCount - 1
+	 * @throws ArithmeticException if deals of this size do not fit in a long
+	 */
+	public static long rankDeal(long[] hands, int topCard) {
+		int cardsPerSeat = Long.bitCount(hands[0]);
+		dealCount(hands.length, cardsPerSeat);
+
+		long index = 0;
+		long radix = 1;
+		long available = Hand.FULL_DECK;
+		for (long hand : hands) {
+			index += radix * rankHand(hand, available);
+			radix *= choose(Long.bitCount(available), cardsPerSeat);
+			available &= ~hand;
+		}
+		return index + radix * Long.bitCount(available & ((1L << topCard) - 1));
+	}
+
+	/**
+	 * The inverse of rankDeal.
+	 * @param index the deal's index
+	 * @param cardsPerSeat the cards dealt to each seat
+	 * @param hands filled with each seat's hand, one per seat
+	 * @return the id of the top card
+	 * @throws ArithmeticException if deals of this size do not fit in a long
+	 */
+	public static int unrankDeal(long index, int cardsPerSeat, long[] hands) {
+		long count = dealCount(hands.length, cardsPerSeat);
+		if (index < 0 || index >= count) {
+			throw new IllegalArgumentException("index " + index + " out of range");
+		}
+		long available = Hand.FULL_DECK;
+		for (int s = 0; s < hands.length; s++) {
+			long digits = choose(Long.bitCount(available), cardsPerSeat);
+			hands[s] = unrankHand(index % digits, cardsPerSeat, available);
+			index /= digits;
+			available &= ~hands[s];
+		}
+		return select(available, (int) index);
+	}
+}
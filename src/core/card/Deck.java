@@ -1,17 +1,16 @@
 package core.card;
 
 import java.awt.image.BufferedImage;
-import java.util.ArrayList;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import javax.imageio.ImageIO;
 
 import core.card.Card.FaceValue;
 import core.card.Card.Suit;
-import core.player.Player;
 
 /**
- * This class stores an ArrayList of 52 card objects.
+ * This class stores the 52 cards as a permutation of card ids, dealt 
+ * from a cursor. The same arrays are reused for every deal.
  * 
  * @author Kyle Holub 
  * @version 1.0
@@ -19,8 +18,21 @@ import core.player.Player;
  */
 public class Deck {
 	
-	// the cards in the deck
-	private ArrayList<Card> cards;
+	// the card ids of a new deck, in order
+	private static final byte[] NEW_DECK = new byte[Hand.DECK_SIZE];
+	
+	static {
+		int i = 0;
+		for (Suit s : Suit.values()) {
+			for (FaceValue v: FaceValue.values()) {
+				NEW_DECK[i++] = (byte) Card.get(s, v).getId();
+			}
+		}
+	}
+	
+	// the card ids in the deck, top first, and the position of the next card to deal
+	private final byte[] order = new byte[Hand.DECK_SIZE];
+	private int cursor;
 	
 	// the x position of the deck
 	public static final int DECK_X = 550;
@@ -46,29 +58,29 @@ public class Deck {
 	 * Constructor
 	 */
 	public Deck() {
-		
-		// load the images
-		initCards();
-		
-		int suit = 0;
-		
-		this.cards = new ArrayList<Card>(52);
-		for (Suit s : Suit.values()) {
-			int value = 0;
-			for (FaceValue v: FaceValue.values()) {
-				cards.add(new Card(s, v, getImage(suit, value)));
-				value++;
-			}
-			suit++;
-		}
+		reset();
 	}
 	
-	public void initCards() {
+	/**
+	 * Puts all 52 cards back in the deck, in order.
+	 */
+	public void reset() {
+		System.arraycopy(NEW_DECK, 0, order, 0, Hand.DECK_SIZE);
+		cursor = 0;
+	}
+	
+	/**
+	 * Loads the card images the first time one is needed.
+	 */
+	private static synchronized void initCards() {
+		if (cardImages != null) {
+			return;
+		}
 		try {
-			halfDeckImage = ImageIO.read(getClass().getResourceAsStream("/images/halfDeck.png"));
-			fullDeckImage = ImageIO.read(getClass().getResourceAsStream("/images/fullDeck.png"));
-			cardSet = ImageIO.read(getClass().getResourceAsStream("/images/cards.png"));
-			cardImages = new BufferedImage[CARD_SUITS][CARD_VALUES];
+			halfDeckImage = ImageIO.read(Deck.class.getResourceAsStream("/images/halfDeck.png"));
+			fullDeckImage = ImageIO.read(Deck.class.getResourceAsStream("/images/fullDeck.png"));
+			cardSet = ImageIO.read(Deck.class.getResourceAsStream("/images/cards.png"));
+			BufferedImage[][] images = new BufferedImage[CARD_SUITS][CARD_VALUES];
 	
 			BufferedImage subimage;
 			for (int row = 0; row < CARD_SUITS; row++) {
@@ -77,9 +89,10 @@ public class Deck {
 							row * HEIGHT,
 							WIDTH,
 							HEIGHT);
-					cardImages[row][col] = subimage;
+					images[row][col] = subimage;
 				}
 			}
+			cardImages = images;
 	
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -90,51 +103,125 @@ public class Deck {
 	 * Shuffles the cards randomly
 	 */
 	public void shuffle() {
-		Random r = new Random();
-		// swap each element with a random element twice
-		for (int i = 0; i < cards.size(); i++) {
-			int j = r.nextInt(cards.size());
-			Card temp = cards.get(i);   // temp = i
-			cards.set(i, cards.get(j)); // i = j
-			cards.set(j, temp);         // j = temp
-		}
-		for (int i = 0; i < cards.size(); i++) {
-			int j = r.nextInt(cards.size());
-			Card temp = cards.get(i);   // temp = i
-			cards.set(i, cards.get(j)); // i = j
-			cards.set(j, temp);         // j = temp
+		shuffle(new SplittableRandom());
+	}
+	
+	/**
+	 * Shuffles the cards left in the deck with the given generator, so the 
+	 * same generator state always gives the same deck. Every ordering is 
+	 * equally likely.
+	 * @param r the generator
+	 */
+	public void shuffle(SplittableRandom r) {
+		// Fisher-Yates: swap each position with a random position at or before it
+		for (int i = Hand.DECK_SIZE - 1; i > cursor; i--) {
+			int j = cursor + r.nextInt(i - cursor + 1);
+			byte temp = order[i];   // temp = i
+			order[i] = order[j];    // i = j
+			order[j] = temp;        // j = temp
 		}
 	}
 	
+	/**
+	 * Deals a card from the top of the deck.
+	 * @return the card's id
+	 */
+	public int dealId() {
+		return order[cursor++];
+	}
+	
 	/**
 	 * Deals a card from the top of the deck.
 	 * @return a Card object
 	 */
 	public Card dealCard() {
-		Card card = cards.get(0);
-		cards.remove(0);
-		return card;
+		return Card.fromId(dealId());
 	}
 	
-	public PlayerCard[] dealCards(int amount, Player player) {
-		PlayerCard[] cards = new PlayerCard[amount];
-		for (int i = 0; i < amount; i++) {
-			cards[i] = new PlayerCard(dealCard(), player, i);
+	/**
+	 * Deals every seat's hand and then the top card, in one pass over 
+	 * the deck. Seats are dealt in order, each taking its cards together, 
+	 * the same as dealing card by card to one player after another.
+	 * @param cardsPerSeat the cards dealt to each seat
+	 * @param hands filled with each seat's hand, see Hand, one per seat
+	 * @return the id of the top card
+	 */
+	public int deal(int cardsPerSeat, long[] hands) {
+		for (int s = 0; s < hands.length; s++) {
+			long hand = 0;
+			for (int i = 0; i < cardsPerSeat; i++) {
+				hand |= 1L << order[cursor++];
+			}
+			hands[s] = hand;
 		}
-		return cards;
+		return order[cursor++];
 	}
 	
+	/**
+	 * Deals every seat's hand and then the top card, in one pass over 
+	 * the deck, copying the card ids out in the order they were dealt. 
+	 * Seats are dealt in order, each taking its cards together.
+	 * @param seats the number of seats
+	 * @param cardsPerSeat the cards dealt to each seat
+	 * @param dealt filled with the ids dealt, cardsPerSeat to a seat
+	 * @return the id of the top card
+	 */
+	public int deal(int seats, int cardsPerSeat, byte[] dealt) {
+		int count = seats * cardsPerSeat;
+		System.arraycopy(order, cursor, dealt, 0, count);
+		cursor += count;
+		return order[cursor++];
+	}
 	
+	/**
+	 * Stacks the deck so the next deal gives each seat the given hand, 
+	 * each in id order, and then the given top card. Used to replay a 
+	 * deal stored by DealCodec.
+	 * @param hands each seat's hand in the order seats are dealt, all the same size
+	 * @param topCard the id of the top card
+	 */
+	public void arrange(long[] hands, int topCard) {
+		cursor = 0;
+		long rest = Hand.FULL_DECK;
+		int i = 0;
+		for (long hand : hands) {
+			for (long h = hand; h != 0; h &= h - 1) {
+				order[i++] = (byte) Long.numberOfTrailingZeros(h);
+			}
+			rest &= ~hand;
+		}
+		order[i++] = (byte) topCard;
+		rest &= ~Hand.bit(topCard);
+		for (long h = rest; h != 0; h &= h - 1) {
+			order[i++] = (byte) Long.numberOfTrailingZeros(h);
+		}
+	}
+	
+	/**
+	 * @return the number of cards left to deal
+	 */
+	public int getCardsLeft() {
+		return Hand.DECK_SIZE - cursor;
+	}
 	
-	public BufferedImage getImage(int x, int y) {
-		return cardImages[x][y];
+	/**
+	 * Gets the face image of a card. The sheet has a row per suit, 
+	 * with columns in FaceValue order, ace first.
+	 * @param id the card id
+	 * @return the image
+	 */
+	public static BufferedImage getCardImage(int id) {
+		initCards();
+		return cardImages[Hand.suitOf(id)][Hand.getFaceValue(Hand.faceOf(id)).ordinal()];
 	}
 	
 	public static BufferedImage getHalfDeckImage() {
+		initCards();
 		return halfDeckImage;
 	}
 	
 	public static BufferedImage getFullDeckImage() {
+		initCards();
 		return fullDeckImage;
 	}
 }
@@ -0,0 +1,205 @@
+package core.card;
+
+import core.card.Card.FaceValue;
+import core.card.Card.Suit;
+
+/**
+ * Operations on a hand stored as a single long. Each suit has 13 bits,
+ * suit s at bits 13*s to 13*s + 12, and within a suit bit n is the card
+ * with face value n (two is 0, ace is 12). A card's bit is its card id,
+ * suit value * 13 + face value.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class Hand {
+
+	// cards in a suit, and cards in the deck
+	public static final int SUIT_SIZE = 13;
+	public static final int DECK_SIZE = 52;
+
+	// the bits of the lowest suit
+	private static final long SUIT_BITS = (1L << SUIT_SIZE) - 1;
+
+	// every card in the deck
+	public static final long FULL_DECK = (1L << DECK_SIZE) - 1;
+
+	// no suit led yet
+	public static final int NO_SUIT = -1;
+
+	// suits and face values indexed by their value
+	private static final Suit[] SUITS = new Suit[4];
+	private static final FaceValue[] FACES = new FaceValue[SUIT_SIZE];
+
+	static {
+		for (Suit s : Suit.values()) {
+			SUITS[s.getValue()] = s;
+		}
+		for (FaceValue v : FaceValue.values()) {
+			FACES[v.getValue()] = v;
+		}
+	}
+
+	private Hand() {
+	}
+
+	/**
+	 * @param suit the suit value
+	 * @param face the face value
+	 * @return the card id
+	 */
+	public static int cardId(int suit, int face) {
+		return suit * SUIT_SIZE + face;
+	}
+
+	public static int suitOf(int cardId) {
+		return cardId / SUIT_SIZE;
+	}
+
+	public static int faceOf(int cardId) {
+		return cardId % SUIT_SIZE;
+	}
+
+	public static Suit getSuit(int suit) {
+		return SUITS[suit];
+	}
+
+	public static FaceValue getFaceValue(int face) {
+		return FACES[face];
+	}
+
+	/**
+	 * @param card a card
+	 * @return a hand holding only that card
+	 */
+	public static long bit(Card card) {
+		return 1L << card.getId();
+	}
+
+	/**
+	 * @param cardId a card id
+	 * @return a hand holding only that card
+	 */
+	public static long bit(int cardId) {
+		return 1L << cardId;
+	}
+
+	/**
+	 * @param suit the suit value
+	 * @return every card of the suit
+	 */
+	public static long suitMask(int suit) {
+		return SUIT_BITS << (SUIT_SIZE * suit);
+	}
+
+	/**
+	 * @param face the face value
+	 * @return the card of that face value in every suit
+	 */
+	public static long faceMask(int face) {
+		return (1L | 1L << SUIT_SIZE | 1L << (2 * SUIT_SIZE) | 1L << (3 * SUIT_SIZE)) << face;
+	}
+
+	/**
+	 * @param hand a hand
+	 * @param suit the suit value
+	 * @return the face values held in the suit, as 13 bits
+	 */
+	public static int suitBits(long hand, int suit) {
+		return (int) ((hand >>> (SUIT_SIZE * suit)) & SUIT_BITS);
+	}
+
+	/**
+	 * @param hand a hand
+	 * @return the face values held in any suit, as 13 bits
+	 */
+	public static int faces(long hand) {
+		return (int) ((hand | (hand >>> SUIT_SIZE) | (hand >>> (2 * SUIT_SIZE)) | (hand >>> (3 * SUIT_SIZE))) & SUIT_BITS);
+	}
+
+	public static int count(long hand) {
+		return Long.bitCount(hand);
+	}
+
+	public static int countSuit(long hand, int suit) {
+		return Long.bitCount(hand & suitMask(suit));
+	}
+
+	public static boolean hasSuit(long hand, int suit) {
+		return (hand & suitMask(suit)) != 0;
+	}
+
+	/**
+	 * The cards that may be played: cards of the lead suit if there are
+	 * any, otherwise anything.
+	 * @param hand a hand
+	 * @param leadSuit the suit led, or NO_SUIT when leading
+	 * @return the playable cards
+	 */
+	public static long legalMoves(long hand, int leadSuit) {
+		if (leadSuit == NO_SUIT) {
+			return hand;
+		}
+		long follow = hand & suitMask(leadSuit);
+		return follow != 0 ? follow : hand;
+	}
+
+	/**
+	 * @param hand a non-empty hand
+	 * @return the highest face value in the hand, in any suit
+	 */
+	public static int highestFace(long hand) {
+		return 31 - Integer.numberOfLeadingZeros(faces(hand));
+	}
+
+	/**
+	 * @param hand a non-empty hand
+	 * @return the lowest face value in the hand, in any suit
+	 */
+	public static int lowestFace(long hand) {
+		return Integer.numberOfTrailingZeros(faces(hand));
+	}
+
+	/**
+	 * @param hand a hand
+	 * @param suit the suit value
+	 * @return the id of the highest card held in the suit, or -1 if there are none
+	 */
+	public static int highestInSuit(long hand, int suit) {
+		int bits = suitBits(hand, suit);
+		return bits == 0 ? -1 : cardId(suit, 31 - Integer.numberOfLeadingZeros(bits));
+	}
+
+	/**
+	 * @param hand a hand
+	 * @param suit the suit value
+	 * @return the id of the lowest card held in the suit, or -1 if there are none
+	 */
+	public static int lowestInSuit(long hand, int suit) {
+		int bits = suitBits(hand, suit);
+		return bits == 0 ? -1 : cardId(suit, Integer.numberOfTrailingZeros(bits));
+	}
+
+	/**
+	 * @param cardId a card id
+	 * @return the card's name, such as "ACE of SPADES"
+	 */
+	public static String cardName(int cardId) {
+		return FACES[faceOf(cardId)] + " of " + SUITS[suitOf(cardId)];
+	}
+
+	/**
+	 * @param hand a hand
+	 * @return the cards in the hand, lowest id first
+	 */
+	public static String toString(long hand) {
+		StringBuilder sb = new StringBuilder("[");
+		for (long h = hand; h != 0; h &= h - 1) {
+			if (sb.length() > 1) {
+				sb.append(", ");
+			}
+			sb.append(cardName(Long.numberOfTrailingZeros(h)));
+		}
+		return sb.append(']').toString();
+	}
+}
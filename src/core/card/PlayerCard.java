@@ -2,35 +2,75 @@ package core.card;
 
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
 
+import core.card.Card.FaceValue;
+import core.card.Card.Suit;
 import core.player.Player;
 
 /**
- * Extended Card class for cards held by players.
+ * A card held by a player, along with its sprite. Each player keeps one
+ * PlayerCard per card and reuses it every time that card is dealt to them.
  * 
  * @author Kyle Holub
  * @version 1.0
  * @since 1.0
  */
-public class PlayerCard extends Card {
+public class PlayerCard extends CardSprite {
 	
-	// how fast cards move
+	private Card card;
 	private boolean clicked;
 	private boolean clickable;
-	private Rectangle clickBox;
 	private Player player;
 	private int index;
 	
 	public PlayerCard(Card card, Player player, int index) {
-		super(card);
+		this.card = card;
+		this.player = player;
+		deal(index);
+	}
+	
+	/**
+	 * Resets the card for a new deal.
+	 * @param index the order the card was dealt in
+	 */
+	public void deal(int index) {
 		clicked = false;
 		clickable = true;
 		this.index = index;
-		this.player = player;
 		this.setPos(-Deck.WIDTH, -Deck.HEIGHT);
 		this.setHome(-Deck.WIDTH, -Deck.HEIGHT);
 	}
 	
+	public Card getCard() {
+		return card;
+	}
+	
+	public Suit getSuit() {
+		return card.getSuit();
+	}
+	
+	public FaceValue getFaceValue() {
+		return card.getFaceValue();
+	}
+	
+	public int getId() {
+		return card.getId();
+	}
+	
+	public boolean sameSuit(Suit suit) {
+		return card.sameSuit(suit);
+	}
+	
+	public boolean greaterFaceValue(FaceValue value) {
+		return card.greaterFaceValue(value);
+	}
+	
+	@Override
+	public BufferedImage getImage() {
+		return Deck.getCardImage(card.getId());
+	}
+	
 	public int getIndex() {
 		return index;
 	}
@@ -44,17 +84,11 @@ public class PlayerCard extends Card {
 	}
 	
 	public String toString() {
-		return player.getName() + " played " + super.toString();
+		return player.getName() + " played " + card.toString();
 	}
 	
 	public String toCardString() {
-		return super.toString();
-	}
-	
-	public void setPos(int x, int y) {
-		this.setX(x);
-		this.setY(y);
-		this.clickBox = new Rectangle(x, y, Deck.WIDTH, Deck.HEIGHT);
+		return card.toString();
 	}
 	
 	public void drag(Point p) {
@@ -68,7 +102,9 @@ public class PlayerCard extends Card {
 	}
 	
 	public boolean contains(Point p) {
-		return clickBox.contains(p);
+		int x = (int) getX();
+		int y = (int) getY();
+		return p.x >= x && p.x < x + Deck.WIDTH && p.y >= y && p.y < y + Deck.HEIGHT;
 	}
 	
 	public boolean isClicked() { return clicked; }
@@ -80,11 +116,11 @@ public class PlayerCard extends Card {
 	}
 	
 	public Rectangle getClickBox() {
-		return clickBox;
+		return new Rectangle((int) getX(), (int) getY(), Deck.WIDTH, Deck.HEIGHT);
 	}
 
 	public String getCardName() {
-		return super.toString();
+		return card.toString();
 	}
 	
 } 
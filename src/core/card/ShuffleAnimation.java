@@ -31,7 +31,7 @@ public class ShuffleAnimation {
 	private int index;
 	private int pauseFrames;
 	private Point[] homes;
-	private Card[] cardsToDeal;
+	private CardSprite[] cardsToDeal;
 	private PlayerQueue q;
 	
 	private boolean phase1;
@@ -48,7 +48,7 @@ public class ShuffleAnimation {
 		this.round = round;
 		homes = q.getHomePositions();
 		startX = x - Deck.getHalfDeckImage().getWidth() / 2;
-		cardsToDeal = new Card[numCards * homes.length];
+		cardsToDeal = new CardSprite[numCards * homes.length];
 		xPos = new int[NUM_SHUFFLE_CARDS];
 		initSplitPositions();
 		yPos0 = y;
@@ -135,7 +135,7 @@ public class ShuffleAnimation {
 							playerIndex = 0;
 							j++;
 						}
-						cardsToDeal[i] = new Card();
+						cardsToDeal[i] = new CardSprite();
 						cardsToDeal[i].setHome(homes[playerIndex].x + (j * 9), homes[playerIndex].y);
 						cardsToDeal[i].setPos(startX, BASE_Y);
 					}
@@ -194,11 +194,11 @@ public class ShuffleAnimation {
 			g.drawImage(Deck.getHalfDeckImage(), xPos[0], yPos0, null);
 		} else if (phase3) {
 			if (index < NUM_SHUFFLE_CARDS) {
-				g.drawImage(Card.getCardBackImage(), xPos[index], yPos0, null);
-				g.drawImage(Card.getCardBackImage(), xPos[index + 1], yPos0, null);
+				g.drawImage(CardSprite.getCardBackImage(), xPos[index], yPos0, null);
+				g.drawImage(CardSprite.getCardBackImage(), xPos[index + 1], yPos0, null);
 				if (index + 2 < NUM_SHUFFLE_CARDS - 3) {
-					g.drawImage(Card.getCardBackImage(), xPos[index + 2], yPos0, null);
-					g.drawImage(Card.getCardBackImage(), xPos[index + 3], yPos0, null);
+					g.drawImage(CardSprite.getCardBackImage(), xPos[index + 2], yPos0, null);
+					g.drawImage(CardSprite.getCardBackImage(), xPos[index + 3], yPos0, null);
 				}
 				if (index < NUM_SHUFFLE_CARDS / 2) {
 					g.drawImage(Deck.getHalfDeckImage(), xPos[1], yPos1, null);
@@ -214,12 +214,12 @@ public class ShuffleAnimation {
 		} else if (phase5) {
 			g.drawImage(Deck.getFullDeckImage(), startX, BASE_Y, null);
 			for (int i = 0; i <  cardsToDeal.length; i++) {
-				g.drawImage(Card.getCardBackImage(), 
+				g.drawImage(CardSprite.getCardBackImage(), 
 						(int)cardsToDeal[i].getX(), 
 						(int)cardsToDeal[i].getY(), null);
 			}
 			if (index < cardsToDeal.length) {
-				g.drawImage(Card.getCardBackImage(), 
+				g.drawImage(CardSprite.getCardBackImage(), 
 						(int)cardsToDeal[index].getX(), 
 						(int)cardsToDeal[index].getY(), null);
 			}
@@ -0,0 +1,54 @@
+package core.card;
+
+import java.util.SplittableRandom;
+
+/**
+ * Derives independent random streams for each table and each hand from a
+ * single seed. A stream depends only on (seed, table, hand), never on the
+ * order streams were asked for, so any deal can be replayed on its own
+ * and parallel tables never share generator state.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class ShuffleStreams {
+
+	// odd constants used to separate the table and hand coordinates
+	private static final long TABLE_STEP = 0x9E3779B97F4A7C15L;
+	private static final long HAND_STEP = 0xD1B54A32D192ED03L;
+
+	private ShuffleStreams() {
+	}
+
+	/**
+	 * The stream for choices made once per table, such as the first dealer.
+	 * @param seed the campaign seed
+	 * @param table the table number
+	 * @return a new generator
+	 */
+	public static SplittableRandom forTable(long seed, long table) {
+		return new SplittableRandom(mix(seed + TABLE_STEP * (table + 1)));
+	}
+
+	/**
+	 * The stream used to shuffle one hand at one table.
+	 * @param seed the campaign seed
+	 * @param table the table number
+	 * @param hand the hand number at that table, starting at 0
+	 * @return a new generator
+	 */
+	public static SplittableRandom forHand(long seed, long table, int hand) {
+		return new SplittableRandom(mix(mix(seed + TABLE_STEP * (table + 1)) + HAND_STEP * (hand + 1)));
+	}
+
+	/**
+	 * The 64 bit finalizer from SplitMix64, so nearby inputs give unrelated seeds.
+	 * @param z the value to mix
+	 * @return the mixed value
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
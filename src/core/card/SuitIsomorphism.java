@@ -0,0 +1,155 @@
+package core.card;
+
+/**
+ * Maps positions that differ only by a renaming of suits to one
+ * representative. Until a suit is led, and unless it is trump, the suits
+ * play alike, so swapping them changes nothing about a position. Those
+ * free suits are sorted by the cards held in them, which gives the same
+ * result for every equivalent position.
+ *
+ * A suit mapping is packed into an int, two bits per suit: suit s becomes
+ * suit (mapping >>> 2s) & 3.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class SuitIsomorphism {
+
+	// the mapping that changes nothing
+	public static final int IDENTITY = 0 | 1 << 2 | 2 << 4 | 3 << 6;
+
+	private static final int NUM_SUITS = 4;
+
+	private SuitIsomorphism() {
+	}
+
+	/**
+	 * @param trump the trump suit value
+	 * @param led the suit led so far this hand, or Hand.NO_SUIT
+	 * @return the suits a mapping must keep fixed, one bit per suit value
+	 */
+	public static int fixedSuits(int trump, int led) {
+		int fixed = 1 << trump;
+		if (led != Hand.NO_SUIT) {
+			fixed |= 1 << led;
+		}
+		return fixed;
+	}
+
+	/**
+	 * @param suit a suit value
+	 * @param mapping a suit mapping
+	 * @return the suit value it maps to
+	 */
+	public static int mapSuit(int suit, int mapping) {
+		return (mapping >>> (2 * suit)) & 3;
+	}
+
+	/**
+	 * @param cardId a card id
+	 * @param mapping a suit mapping
+	 * @return the id of the same face value in the mapped suit
+	 */
+	public static int mapCard(int cardId, int mapping) {
+		return Hand.cardId(mapSuit(Hand.suitOf(cardId), mapping), Hand.faceOf(cardId));
+	}
+
+	/**
+	 * @param cards some cards, see Hand
+	 * @param mapping a suit mapping
+	 * @return the same cards with their suits mapped
+	 */
+	public static long apply(long cards, int mapping) {
+		long mapped = 0;
+		for (int s = 0; s < NUM_SUITS; s++) {
+			mapped |= (long) Hand.suitBits(cards, s) << (Hand.SUIT_SIZE * mapSuit(s, mapping));
+		}
+		return mapped;
+	}
+
+	/**
+	 * @param mapping a suit mapping
+	 * @return the mapping that undoes it
+	 */
+	public static int inverse(int mapping) {
+		int inverse = 0;
+		for (int s = 0; s < NUM_SUITS; s++) {
+			inverse |= s << (2 * mapSuit(s, mapping));
+		}
+		return inverse;
+	}
+
+	/**
+	 * Maps a hand to its representative.
+	 * @param hand a hand
+	 * @param trump the trump suit value
+	 * @return the representative hand
+	 */
+	public static long canonical(long hand, int trump) {
+		return apply(hand, canonicalMapping(new long[] {hand}, fixedSuits(trump, Hand.NO_SUIT)));
+	}
+
+	/**
+	 * Maps a position, such as a hand and the cards played so far, to its
+	 * representative, in place.
+	 * @param masks the position's card sets, most important first
+	 * @param fixedSuits the suits to keep, see fixedSuits
+	 * @return the suit mapping used
+	 */
+	public static int canonicalize(long[] masks, int fixedSuits) {
+		int mapping = canonicalMapping(masks, fixedSuits);
+		for (int i = 0; i < masks.length; i++) {
+			masks[i] = apply(masks[i], mapping);
+		}
+		return mapping;
+	}
+
+	/**
+	 * Finds the mapping to a position's representative without changing it.
+	 * The free suits are sorted by the cards each set holds in them, first
+	 * set first, strongest first, and moved into the free suit values in
+	 * that order. Suits that tie hold the same cards, so their order does
+	 * not matter.
+	 * @param masks the position's card sets, most important first
+	 * @param fixedSuits the suits to keep, see fixedSuits
+	 * @return the suit mapping
+	 */
+	public static int canonicalMapping(long[] masks, int fixedSuits) {
+		int[] free = new int[NUM_SUITS];
+		int count = 0;
+		for (int s = 0; s < NUM_SUITS; s++) {
+			if ((fixedSuits & (1 << s)) == 0) {
+				free[count++] = s;
+			}
+		}
+
+		// sort the free suits, strongest first
+		int[] sorted = free.clone();
+		for (int i = 1; i < count; i++) {
+			int suit = sorted[i];
+			int j = i - 1;
+			while (j >= 0 && compare(masks, suit, sorted[j]) > 0) {
+				sorted[j + 1] = sorted[j];
+				j--;
+			}
+			sorted[j + 1] = suit;
+		}
+
+		int mapping = IDENTITY;
+		for (int i = 0; i < count; i++) {
+			int s = sorted[i];
+			mapping = (mapping & ~(3 << (2 * s))) | (free[i] << (2 * s));
+		}
+		return mapping;
+	}
+
+	private static int compare(long[] masks, int a, int b) {
+		for (long mask : masks) {
+			int diff = Integer.compare(Hand.suitBits(mask, a), Hand.suitBits(mask, b));
+			if (diff != 0) {
+				return diff;
+			}
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,105 @@
+package core.card;
+
+/**
+ * Keeps what the cards played so far this hand prove about each seat:
+ * the cards it has played, and the suits it is known to be out of. A
+ * seat that doesn't follow the suit led can't have any left, so that
+ * suit is void for it for the rest of the hand. Each card played is
+ * recorded in constant time, and everything is kept as bitmasks, see
+ * Hand.
+ *
+ * Voids are kept as one bit per suit value, so seat s is void in suit
+ * u when (getVoids(s) >>> u & 1) is set.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class VoidTracker {
+
+	// the most seats a tracker follows
+	public static final int MAX_SEATS = 4;
+
+	private static final int NUM_SUITS = 4;
+
+	// the cards each seat has played this hand, and every card played
+	private final long[] played = new long[MAX_SEATS];
+	private long seen;
+
+	// the suits each seat is known to be out of, a bit per suit value
+	private final int[] voids = new int[MAX_SEATS];
+
+	/**
+	 * Forgets everything, for a new hand.
+	 */
+	public void clear() {
+		for (int s = 0; s < played.length; s++) {
+			played[s] = 0;
+			voids[s] = 0;
+		}
+		seen = 0;
+	}
+
+	/**
+	 * Records a card played to a trick.
+	 * @param seat the seat that played it
+	 * @param cardId the card's id
+	 * @param ledSuit the suit value led to the trick, or Hand.NO_SUIT if
+	 * the card leads it
+	 */
+	public void record(int seat, int cardId, int ledSuit) {
+		long bit = Hand.bit(cardId);
+		played[seat] |= bit;
+		seen |= bit;
+		if (ledSuit != Hand.NO_SUIT && Hand.suitOf(cardId) != ledSuit) {
+			voids[seat] |= 1 << ledSuit;
+		}
+	}
+
+	/**
+	 * @param seat a seat
+	 * @return the suits the seat is known to be out of, a bit per suit value
+	 */
+	public int getVoids(int seat) {
+		return voids[seat];
+	}
+
+	/**
+	 * @return every seat's voids, indexed by seat, see getVoids
+	 */
+	public int[] getAllVoids() {
+		return voids.clone();
+	}
+
+	public boolean isVoid(int seat, int suit) {
+		return (voids[seat] >>> suit & 1) != 0;
+	}
+
+	/**
+	 * @param seat a seat
+	 * @return the cards the seat has played this hand
+	 */
+	public long getPlayed(int seat) {
+		return played[seat];
+	}
+
+	/**
+	 * @return every card played this hand
+	 */
+	public long getSeen() {
+		return seen;
+	}
+
+	/**
+	 * @param voids a seat's voids, see getVoids
+	 * @return every card of those suits
+	 */
+	public static long voidCards(int voids) {
+		long cards = 0;
+		for (int suit = 0; suit < NUM_SUITS; suit++) {
+			if ((voids >>> suit & 1) != 0) {
+				cards |= Hand.suitMask(suit);
+			}
+		}
+		return cards;
+	}
+}
@@ -15,9 +15,10 @@ import java.util.ListIterator;
 
 import javax.imageio.ImageIO;
 
-import core.card.Card;
+import core.GameContext;
 import core.card.Card.Suit;
 import core.card.Deck;
+import core.card.Hand;
 import core.card.PlayerCard;
 import game.main.MainCanvas;
 import util.JukeBox;
@@ -64,7 +65,7 @@ public class HumanPlayer extends Player {
 	private Rectangle[] bidHitBoxes;
 
 	// a temp card object used to draw the selection outline
-	private static Card tempCard;
+	private static PlayerCard tempCard;
 
 	public HumanPlayer(String name, int i) {
 		super(name, i);
@@ -94,7 +95,7 @@ public class HumanPlayer extends Player {
 		return getHand();
 	}
 
-	public void updateBet(int totalBets) {
+	public void updateBet(GameContext context, int totalBets) {
 		if (!isBidUIDisplayed && !hasMadeBet()) {
 			this.totalBets = totalBets;
 			currChoice = 0;
@@ -111,28 +112,10 @@ public class HumanPlayer extends Player {
 	public void setPlayableCards(Suit firstCardSuit) {
 		playableCards = new boolean[this.getNumberOfCards()];
 		// if suit is null, there is no first card, play anything
-		if (firstCardSuit == null) {
-			for (int i = 0; i < playableCards.length; i++) {
-				playableCards[i] = true;
-			}
-		} else {
-			int i = 0;
-			boolean playable = false;
-			// check for cards of the same suit as first card
-			for (Card card: this.getHand()) {
-				if (card.sameSuit(firstCardSuit)) {
-					playableCards[i] = true;
-					playable = true;
-				}
-				i++;
-			}
-			// if still no cards match, all cards are playable
-			if (!playable) {
-				i = 0;
-				for (i = 0; i < getHand().size(); i++) {
-					playableCards[i] = true;
-				}
-			} 
+		int lead = firstCardSuit == null ? Hand.NO_SUIT : firstCardSuit.getValue();
+		long legal = Hand.legalMoves(getHandMask(), lead);
+		for (int i = 0; i < playableCards.length; i++) {
+			playableCards[i] = (legal & Hand.bit(getHand().get(i).getId())) != 0;
 		}
 
 		// set currChoice to first available card
@@ -146,8 +129,9 @@ public class HumanPlayer extends Player {
 
 
 	@Override
-	public PlayerCard playCard(ArrayList<PlayerCard> playedCards) {
+	public PlayerCard playCard(GameContext context) {
 		if (!hasPlayedCard() && !cardsHighlighted) {
+			ArrayList<PlayerCard> playedCards = context.getPlayedCards();
 			if (playedCards.isEmpty()) {
 				setPlayableCards(null);
 			} else {
@@ -176,7 +160,7 @@ public class HumanPlayer extends Player {
 		}
 	}
 
-	private Card getCardAtIndex(int choice) {
+	private PlayerCard getCardAtIndex(int choice) {
 		Iterator<PlayerCard> it = getCards().iterator();
 		int index = 0;
 		while (it.hasNext()) {
@@ -5,8 +5,10 @@ import java.awt.Point;
 import java.util.ArrayList;
 import java.util.ListIterator;
 
+import core.GameContext;
 import core.card.Card;
 import core.card.Card.Suit;
+import core.card.Hand;
 import core.card.PlayerCard;
 
 /**
@@ -18,7 +20,9 @@ import core.card.PlayerCard;
  */
 public abstract class Player {
 	
-	// the player's name tag
+	private String name;
+	
+	// the player's name tag, made the first time it is needed
 	private PlayerUI nameTag;
 	
 	private boolean betMade;
@@ -28,6 +32,12 @@ public abstract class Player {
 	// the player's hand
 	private volatile ArrayList<PlayerCard> hand;
 	
+	// the same hand as a bitboard, see Hand
+	private long handMask;
+	
+	// the sprite for each card this player has been dealt, by card id, reused every deal
+	private PlayerCard[] cardPool;
+	
 	private boolean isCardPlayed;
 	
 	private boolean isDealer;
@@ -43,13 +53,18 @@ public abstract class Player {
 
 	// the player's tricks obtained for a round
 	private int tricks;
+	
+	// hands scored, hands where the bet was missed, and the total tricks missed by
+	private int handsPlayed;
+	private int handsSet;
+	private int tricksMissed;
 
 	/**
 	 * Constructor
 	 */
 	public Player(String name, int i) {
 		this.playerIndex = i;
-		nameTag = new PlayerUI(name, i, this);
+		this.name = name;
 		hand = new ArrayList<PlayerCard>();
 		score = 0;
 		tricks = 0;
@@ -61,12 +76,24 @@ public abstract class Player {
 		turn = false;
 	}
 	
-	public abstract PlayerCard playCard(ArrayList<PlayerCard> playedCards);
+	/**
+	 * Plays a card to the current trick once the player has decided.
+	 * @param context the table, holding the cards played so far and the trump suit
+	 * @return the card played, or null if the player has not decided yet
+	 */
+	public abstract PlayerCard playCard(GameContext context);
 
-	public abstract void updateBet(int totalBets);
+	/**
+	 * Makes a bid once the player has decided.
+	 * @param context the table being played at
+	 * @param totalBets the sum of the bids made so far
+	 */
+	public abstract void updateBet(GameContext context, int totalBets);
 
 	public void newRound() {
-		nameTag.reset();
+		if (nameTag != null) {
+			nameTag.reset();
+		}
 		betMade = false;
 		bet = 0;
 	}
@@ -86,24 +113,36 @@ public abstract class Player {
 	
 	public void nextTrick() {
 		isCardPlayed = false;
-		hand.remove(cardPlayed);
+		removeCard(cardPlayed);
 		cardPlayed = null;
 	}
 
 	public String getName() {
-		return nameTag.getName();
+		return name;
 	}
 	
 	public void toggleDealer() {
 		isDealer= !isDealer;
 	}
 	
+	/**
+	 * Gets the player's name tag, making it the first time, so players 
+	 * that are never drawn never make one.
+	 * @return the name tag
+	 */
 	public PlayerUI getNameTag() {
+		if (nameTag == null) {
+			nameTag = new PlayerUI(name, playerIndex, this);
+			if (betMade) {
+				nameTag.setBet(bet);
+			}
+			nameTag.setTricks(tricks);
+		}
 		return nameTag;
 	}
 	
 	public void drawNameTag(Graphics g) {
-		nameTag.drawTag(g);
+		getNameTag().drawTag(g);
 	}
 
 	public int getNumberOfCards() {
@@ -122,6 +161,31 @@ public abstract class Player {
 		return hand;
 	}
 	
+	/**
+	 * @return the hand as a bitboard, see Hand
+	 */
+	public long getHandMask() {
+		return handMask;
+	}
+	
+	/**
+	 * Removes a card from the hand.
+	 * @param card the card, or null to do nothing
+	 */
+	public void removeCard(PlayerCard card) {
+		if (card != null && hand.remove(card)) {
+			handMask &= ~Hand.bit(card.getId());
+		}
+	}
+	
+	/**
+	 * Takes every card out of the hand, for when the rest of a hand is claimed.
+	 */
+	public void clearHand() {
+		hand.clear();
+		handMask = 0;
+	}
+	
 	public int getBet() {
 		return bet;
 	}
@@ -132,12 +196,16 @@ public abstract class Player {
 	
 	public void addTrick() {
 		tricks++;
-		this.nameTag.setTricks(tricks);
+		if (nameTag != null) {
+			nameTag.setTricks(tricks);
+		}
 	}
 	
 	public void setBet(int bet) {
 		this.bet = bet;
-		this.nameTag.setBet(bet);
+		if (nameTag != null) {
+			nameTag.setBet(bet);
+		}
 		betMade = true;
 	}
 	
@@ -154,7 +222,15 @@ public abstract class Player {
 		return playerIndex;
 	}
 	
-	public int getCardIndex(Card cardToPlay) {
+	/**
+	 * @param cardId a card id
+	 * @return the card in hand with that id, or null if it is not in hand
+	 */
+	public PlayerCard getCardInHand(int cardId) {
+		return (handMask & Hand.bit(cardId)) != 0 ? cardPool[cardId] : null;
+	}
+	
+	public int getCardIndex(PlayerCard cardToPlay) {
 		return hand.indexOf(cardToPlay);
 	}
 	
@@ -170,24 +246,52 @@ public abstract class Player {
 		return highest;
 	}
 
-	public Card getHighestCard() {
-		Card highest = hand.get(0);
-		for (Card card: hand) {
-			if (card.greaterFaceValue(highest.getFaceValue())) {
-				highest = card;
-			}
-		}
-		return highest;
+	public PlayerCard getHighestCard() {
+		return getHighestCard(handMask);
 	}
 
 	public PlayerCard getLowestCard() {
-		PlayerCard lowest = hand.get(0);
-		for (PlayerCard card: hand) {
-			if (!card.greaterFaceValue(lowest.getFaceValue())) {
-				lowest = card;
+		return getLowestCard(handMask);
+	}
+	
+	/**
+	 * Gets the highest face value card out of some of the cards in hand.
+	 * Ties go to the card that comes first in the hand.
+	 * @param cards the cards to choose from, as a bitboard
+	 * @return the card, or null if there are no cards to choose from
+	 */
+	public PlayerCard getHighestCard(long cards) {
+		if (cards == 0) {
+			return null;
+		}
+		int face = Hand.highestFace(cards);
+		for (int i = 0; i < hand.size(); i++) {
+			PlayerCard card = hand.get(i);
+			if (card.getFaceValue().getValue() == face && (cards & Hand.bit(card.getId())) != 0) {
+				return card;
 			}
 		}
-		return lowest;
+		return null;
+	}
+	
+	/**
+	 * Gets the lowest face value card out of some of the cards in hand.
+	 * Ties go to the card that comes last in the hand.
+	 * @param cards the cards to choose from, as a bitboard
+	 * @return the card, or null if there are no cards to choose from
+	 */
+	public PlayerCard getLowestCard(long cards) {
+		if (cards == 0) {
+			return null;
+		}
+		int face = Hand.lowestFace(cards);
+		for (int i = hand.size() - 1; i >= 0; i--) {
+			PlayerCard card = hand.get(i);
+			if (card.getFaceValue().getValue() == face && (cards & Hand.bit(card.getId())) != 0) {
+				return card;
+			}
+		}
+		return null;
 	}
 	
 	public PlayerCard getLowestCard(ArrayList<PlayerCard> cards) {
@@ -201,7 +305,10 @@ public abstract class Player {
 	}
  
 	public void setName(String name) {
-		this.nameTag.setName(name);
+		this.name = name;
+		if (nameTag != null) {
+			nameTag.setName(name);
+		}
 	}
 
 	/**
@@ -210,6 +317,50 @@ public abstract class Player {
 	 */
 	public void giveCard(PlayerCard card) {
 		hand.add(card);
+		handMask |= Hand.bit(card.getId());
+	}
+	
+	/**
+	 * Deals a card to the player.
+	 * @param card the card
+	 * @param index the order the card was dealt in
+	 */
+	public void giveCard(Card card, int index) {
+		giveCard(getPlayerCard(card, index));
+	}
+	
+	/**
+	 * Deals a whole hand to the player at once, the cards going into the
+	 * hand in the order they were dealt.
+	 * @param dealt card ids in the order dealt, see Deck.deal
+	 * @param from the position of the player's first card
+	 * @param count the number of cards
+	 */
+	public void giveHand(byte[] dealt, int from, int count) {
+		for (int i = 0; i < count; i++) {
+			giveCard(Card.fromId(dealt[from + i]), i);
+		}
+	}
+
+	/**
+	 * Gets this player's sprite for a card, reset for a new deal. Each 
+	 * player makes at most one sprite per card and reuses it.
+	 * @param card the card
+	 * @param index the order the card was dealt in
+	 * @return the sprite
+	 */
+	public PlayerCard getPlayerCard(Card card, int index) {
+		if (cardPool == null) {
+			cardPool = new PlayerCard[Hand.DECK_SIZE];
+		}
+		PlayerCard playerCard = cardPool[card.getId()];
+		if (playerCard == null) {
+			playerCard = new PlayerCard(card, this, index);
+			cardPool[card.getId()] = playerCard;
+		} else {
+			playerCard.deal(index);
+		}
+		return playerCard;
 	}
 	
 	/**
@@ -223,12 +374,7 @@ public abstract class Player {
 	}
 	
 	public boolean haveSuit(Suit suit) {
-		for (Card card: hand) {
-			if (card.sameSuit(suit)) {
-				return true;
-			}
-		}
-		return false;
+		return Hand.hasSuit(handMask, suit.getValue());
 	}
 
 	public void updateCards() {
@@ -244,16 +390,40 @@ public abstract class Player {
 	}
 	
 	public void tallyScore() {
+		handsPlayed++;
 		if (bet == tricks) {
 			score += 10 + (2 * bet);
 		} else {
 			int i = Math.abs(bet - tricks);
 			score += (i * -5);
+			handsSet++;
+			tricksMissed += i;
 		}
 		bet = 0;
 		tricks = 0;
 	}
 	
+	/**
+	 * @return the number of hands scored
+	 */
+	public int getHandsPlayed() {
+		return handsPlayed;
+	}
+	
+	/**
+	 * @return the number of hands where the bet was missed
+	 */
+	public int getHandsSet() {
+		return handsSet;
+	}
+	
+	/**
+	 * @return the sum over all hands of the difference between bet and tricks taken
+	 */
+	public int getTricksMissed() {
+		return tricksMissed;
+	}
+	
 	public boolean hasMadeBet() {
 		return betMade;
 	}
@@ -7,13 +7,13 @@ import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.Queue;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import javax.imageio.ImageIO;
 
-import core.RoundKeeper;
-import core.card.Card;
+import core.GameContext;
 import core.card.Deck;
+import core.card.Hand;
 import core.card.PlayerCard;
 import game.main.Main;
 
@@ -28,8 +28,11 @@ public class PlayerQueue {
 
 	private Queue<Player> q;
 
-	private static ArrayList<PlayerCard> playedCards;
-	private static HumanPlayer human;
+	// the table these players are seated at
+	private GameContext context;
+
+	// the card ids of each deal, in the order dealt, reused every hand
+	private final byte[] dealt = new byte[Hand.DECK_SIZE];
 
 	private static BufferedImage bidTricks;
 	private static BufferedImage setText;
@@ -37,7 +40,7 @@ public class PlayerQueue {
 	/*
 	 * Constructor
 	 */
-	public PlayerQueue(HumanPlayer player, ComputerPlayer[] AI) {
+	public PlayerQueue(GameContext context, HumanPlayer player, ComputerPlayer[] AI) {
 
 		try {
 			bidTricks = ImageIO.read(getClass().getResourceAsStream("/images/bidTricks.png"));
@@ -46,7 +49,9 @@ public class PlayerQueue {
 			e.printStackTrace();
 		}
 
-		human = player;
+		this.context = context;
+		context.setPlayers(this);
+		context.setHuman(player);
 		// init queue
 		q = new LinkedList<Player>();
 
@@ -57,11 +62,23 @@ public class PlayerQueue {
 		// add human player
 		q.add(player);
 
-		playedCards = new ArrayList<PlayerCard>();
 		q.peek().setTurn(true);
 		// allPlayersBid = false;
 	}
 
+	/*
+	 * Constructor for a table of computer players only, used for simulated games
+	 */
+	public PlayerQueue(GameContext context, ComputerPlayer[] AI) {
+		this.context = context;
+		context.setPlayers(this);
+		q = new LinkedList<Player>();
+		for (Player ai : AI) {
+			q.add(ai);
+		}
+		q.peek().setTurn(true);
+	}
+
 	public void resetBids() {
 		// allPlayersBid = false;
 		nextDealer();
@@ -89,25 +106,40 @@ public class PlayerQueue {
 	}
 
 	public void updateScores() {
-		if (Main.DEBUG) { System.out.println("bet=" + human.getBet() + " tricks=" + human.getTricks()); }
+		if (Main.DEBUG && getUser() != null) { System.out.println("bet=" + getUser().getBet() + " tricks=" + getUser().getTricks()); }
 
 		for (Player p : q) {
 			p.tallyScore();
 		}
 	}
 
-	public void giveCards(Deck deck, int cardsPerPlayer) {
-		// give each player cards
+	/**
+	 * Deals every player's hand and the top card in one pass over the
+	 * deck, one player after another in turn order.
+	 * @param deck the shuffled deck
+	 * @param cardsPerPlayer the cards dealt to each player
+	 * @return the id of the top card
+	 */
+	public int giveCards(Deck deck, int cardsPerPlayer) {
+		int topCard = deck.deal(q.size(), cardsPerPlayer, dealt);
+		int from = 0;
 		for (Player player : q) {
-			player.giveCards(deck.dealCards(cardsPerPlayer, player));
+			player.giveHand(dealt, from, cardsPerPlayer);
+			from += cardsPerPlayer;
 		}
+		return topCard;
 	}
 
 	public void playCards() {
-		q.peek().playCard(playedCards);
+		q.peek().playCard(context);
 		// if player at font of queue has played card, send to back of queue
 		if (q.peek().hasPlayedCard()) {
-			playedCards.add(q.peek().getCardPlayed());
+			PlayerCard card = q.peek().getCardPlayed();
+			// a seat that doesn't follow suit is out of the suit led
+			ArrayList<PlayerCard> trick = context.getPlayedCards();
+			int led = trick.isEmpty() ? Hand.NO_SUIT : trick.get(0).getSuit().getValue();
+			context.getVoidTracker().record(q.peek().getIndex(), card.getId(), led);
+			context.addPlayedCard(card);
 			nextTurn();
 		}
 	}
@@ -131,7 +163,7 @@ public class PlayerQueue {
 		for (Player p : q) {
 			p.nextTrick();
 		}
-		playedCards = new ArrayList<PlayerCard>();
+		context.clearPlayedCards();
 	}
 
 	// TODO crappy method
@@ -157,13 +189,13 @@ public class PlayerQueue {
 	 * Updates the bids of all players
 	 */
 	public void updateBids() {
-		q.peek().updateBet(getTotalBets());
+		q.peek().updateBet(context, getTotalBets());
 
 		// if current player has bet, set next turn
 		if (q.peek().hasMadeBet()) {
 			// if player is dealer, all bids have been made
 			if (q.peek().isDealer()) {
-				RoundKeeper.setIsAllPlayersBid(true); // TODO make non-static
+				context.setAllPlayersBid(true);
 			}
 			nextTurn();
 		}
@@ -178,7 +210,7 @@ public class PlayerQueue {
 
 	public void removeCards(ArrayList<PlayerCard> playedCards) {
 		for (PlayerCard card : playedCards) {
-			card.getPlayer().getHand().remove((Card) card);
+			card.getPlayer().removeCard(card);
 		}
 		playedCards = new ArrayList<PlayerCard>();
 	}
@@ -196,8 +228,16 @@ public class PlayerQueue {
 	}
 
 	public void shuffle() {
-		Random rand = new Random();
-		for (int i = 0; i < rand.nextInt(q.size()); i++) {
+		shuffle(new SplittableRandom());
+	}
+
+	/**
+	 * Picks the first dealer at random.
+	 * @param rand the generator to pick with
+	 */
+	public void shuffle(SplittableRandom rand) {
+		int turns = rand.nextInt(q.size());
+		for (int i = 0; i < turns; i++) {
 			nextTurn();
 		}
 		q.peek().toggleDealer();
@@ -212,14 +252,14 @@ public class PlayerQueue {
 	}
 
 	public HumanPlayer getUser() {
-		return human;
+		return context.getHuman();
 	}
 
 	/**
-	 * @return playedCards
+	 * @return the cards played in the current trick
 	 */
-	public static ArrayList<PlayerCard> getPlayedCards() {
-		return playedCards;
+	public ArrayList<PlayerCard> getPlayedCards() {
+		return context.getPlayedCards();
 	}
 
 	public boolean isHandEmpty() {
@@ -251,13 +291,20 @@ public class PlayerQueue {
 		return null;
 	}
 
-	public static void updatePlayedCards() {
-		for (PlayerCard p : playedCards) {
+	public void updatePlayedCards() {
+		for (PlayerCard p : context.getPlayedCards()) {
 			p.updateTowardsHome(.03f);
 		}
 
 	}
 
+	/**
+	 * @return the players in turn order, starting with the player whose turn it is
+	 */
+	public Player[] getPlayers() {
+		return q.toArray(new Player[q.size()]);
+	}
+
 	public Player getWinner() {
 		Player[] players = new Player[q.size()];
 		players = q.toArray(players);
@@ -278,7 +325,7 @@ public class PlayerQueue {
 			if (p.getBet() != p.getTricks()) {
 				set = true;
 			}
-			if (p.equals(human)) {
+			if (p.equals(getUser())) {
 				if (set) {
 					g.drawImage(setText, p.getHome().x - 105, p.getHome().y, null);
 				} else {
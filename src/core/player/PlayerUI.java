@@ -56,18 +56,6 @@ public class PlayerUI {
 		this.name = name;
 		
 		this.player = player;
-		try {
-			trickIcon = ImageIO.read(getClass().getResourceAsStream("/images/trickIcon.png"));
-			betIcon = ImageIO.read(getClass().getResourceAsStream("/images/trickIcon.png"));
-			Image temp = Transparency.makeImageTranslucent(betIcon, .7f);
-			betIcon = Transparency.toBufferedImage(temp);
-			underBidIcon = ImageIO.read(getClass().getResourceAsStream("/images/underBidIcon.png"));
-			dealerIcon = ImageIO.read(getClass().getResourceAsStream("/images/dealerIcon.png"));
-			font = new Font("monospaced", Font.BOLD, 14);
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
-		
 
 		if (i == -1) {
 			posX = MainCanvas.SCREEN_W / 2 - (TAG_W / 2);
@@ -80,6 +68,24 @@ public class PlayerUI {
 		tag = new Rectangle(posX, posY, TAG_W, TAG_H);
 	}
 	
+	/**
+	 * Loads the icons and font the first time a tag is drawn, 
+	 * so players that are never drawn never touch an image.
+	 */
+	private static void loadImages() {
+		try {
+			trickIcon = ImageIO.read(PlayerUI.class.getResourceAsStream("/images/trickIcon.png"));
+			betIcon = ImageIO.read(PlayerUI.class.getResourceAsStream("/images/trickIcon.png"));
+			Image temp = Transparency.makeImageTranslucent(betIcon, .7f);
+			betIcon = Transparency.toBufferedImage(temp);
+			underBidIcon = ImageIO.read(PlayerUI.class.getResourceAsStream("/images/underBidIcon.png"));
+			dealerIcon = ImageIO.read(PlayerUI.class.getResourceAsStream("/images/dealerIcon.png"));
+			font = new Font("monospaced", Font.BOLD, 14);
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+	
 	public int getTagPad() {
 		return tagPad;
 	}
@@ -90,6 +96,10 @@ public class PlayerUI {
 	}
 	
 	public void drawTag(Graphics g) {
+		if (font == null) {
+			loadImages();
+		}
+		
 		// set font
 		g.setFont(font);
 		
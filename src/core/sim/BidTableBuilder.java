@@ -0,0 +1,196 @@
+package core.sim;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import core.ai.BidTable;
+import core.ai.CompactState;
+import core.ai.PlayoutPolicy;
+import core.card.Hand;
+
+/**
+ * Builds the bid table offline. It deals many random hands of every size
+ * the table covers, has each seat bid and every card played by
+ * PlayoutPolicy, and counts the tricks each seat took under its hand's
+ * entry. The counts become each entry's odds.
+ *
+ * Bids change how a hand is played, so the first round bids by the
+ * heuristic rule and each later round bids with the table the round
+ * before built, which brings the odds closer to how a table bidder's
+ * hands actually go.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class BidTableBuilder {
+
+	// hands an entry needs before its odds are kept
+	private static final int MIN_SAMPLES = 200;
+
+	private static final int SEATS = HeadlessGame.NUM_SEATS;
+
+	private long seed;
+
+	/**
+	 * Constructor
+	 * @param seed the seed deals are drawn from
+	 */
+	public BidTableBuilder(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Plays the deals and makes a table from them.
+	 * @param deals the number of deals
+	 * @param bidder the table to bid with, or null to bid by the heuristic rule
+	 * @param executor the executor to play deals on
+	 * @param threads the number of tasks to split the deals into
+	 * @return the table
+	 * @throws InterruptedException if interrupted while waiting for the deals
+	 */
+	public BidTable build(long deals, BidTable bidder, ExecutorService executor, int threads)
+			throws InterruptedException {
+		SplittableRandom random = new SplittableRandom(seed);
+		List<Future<long[]>> running = new ArrayList<Future<long[]>>();
+		for (int t = 0; t < threads; t++) {
+			SplittableRandom taskRandom = random.split();
+			long share = deals / threads + (t < deals % threads ? 1 : 0);
+			running.add(executor.submit(() -> count(share, bidder, taskRandom)));
+		}
+
+		long[] counts = new long[BidTable.ENTRIES * BidTable.ODDS_PER_ENTRY];
+		for (Future<long[]> task : running) {
+			long[] part;
+			try {
+				part = task.get();
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("a deal failed", e.getCause());
+			}
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] += part[i];
+			}
+		}
+		return new BidTable(toOdds(counts));
+	}
+
+	/**
+	 * Plays out a number of random deals.
+	 * @return the number of hands that took each trick count, by entry
+	 */
+	private static long[] count(long deals, BidTable bidder, SplittableRandom random) {
+		long[] counts = new long[BidTable.ENTRIES * BidTable.ODDS_PER_ENTRY];
+		int[] deck = new int[Hand.DECK_SIZE];
+		for (int i = 0; i < deck.length; i++) {
+			deck[i] = i;
+		}
+		long[] hands = new long[SEATS];
+		int[] entries = new int[SEATS];
+
+		for (long n = 0; n < deals; n++) {
+			int handSize = 1 + random.nextInt(BidTable.MAX_HAND_SIZE);
+			int dealer = random.nextInt(SEATS);
+
+			// partial Fisher-Yates over the cards dealt, then the top card for trump
+			int drawn = 0;
+			for (int s = 0; s < SEATS; s++) {
+				long hand = 0;
+				for (int c = 0; c < handSize; c++) {
+					hand |= Hand.bit(draw(deck, drawn++, random));
+				}
+				hands[s] = hand;
+			}
+			int trump = Hand.suitOf(draw(deck, drawn, random));
+
+			CompactState state = new CompactState(hands, trump, dealer);
+			for (int position = 0; position < SEATS; position++) {
+				int seat = state.getTurn();
+				int totalBids = state.getTotalBids();
+				entries[seat] = BidTable.entry(hands[seat], trump, position, SEATS, totalBids);
+				int forbidden = state.getForbiddenBid();
+				int bid = bidder == null ? -1 : bidder.bid(entries[seat], forbidden);
+				state.bid(bid >= 0 ? bid : PlayoutPolicy.bid(state));
+			}
+			PlayoutPolicy.playOut(state);
+			for (int s = 0; s < SEATS; s++) {
+				counts[entries[s] * BidTable.ODDS_PER_ENTRY + state.getTricks(s)]++;
+			}
+		}
+		return counts;
+	}
+
+	private static int draw(int[] deck, int drawn, SplittableRandom random) {
+		int j = drawn + random.nextInt(deck.length - drawn);
+		int card = deck[j];
+		deck[j] = deck[drawn];
+		deck[drawn] = card;
+		return card;
+	}
+
+	/**
+	 * Scales each entry's counts to odds out of 255, leaving entries with
+	 * too few hands empty.
+	 */
+	private static byte[] toOdds(long[] counts) {
+		byte[] odds = new byte[counts.length];
+		for (int entry = 0; entry < BidTable.ENTRIES; entry++) {
+			int base = entry * BidTable.ODDS_PER_ENTRY;
+			long total = 0;
+			for (int t = 0; t < BidTable.ODDS_PER_ENTRY; t++) {
+				total += counts[base + t];
+			}
+			if (total < MIN_SAMPLES) {
+				continue;
+			}
+			for (int t = 0; t < BidTable.ODDS_PER_ENTRY; t++) {
+				odds[base + t] = (byte) Math.round(255.0 * counts[base + t] / total);
+			}
+		}
+		return odds;
+	}
+
+	/**
+	 * Builds a table and writes it out.
+	 * @param args the output file, and optionally the deals per round, the
+	 * number of rounds, the number of threads and a seed
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length < 1) {
+			System.out.println("usage: BidTableBuilder <output> [deals] [rounds] [threads] [seed]");
+			return;
+		}
+		Path file = Paths.get(args[0]);
+		long deals = args.length > 1 ? Long.parseLong(args[1]) : 20000000;
+		int rounds = args.length > 2 ? Math.max(1, Integer.parseInt(args[2])) : 3;
+		int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+		long seed = args.length > 4 ? Long.parseLong(args[4]) : 1;
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		BidTable table = null;
+		try {
+			for (int round = 0; round < rounds; round++) {
+				long start = System.nanoTime();
+				table = new BidTableBuilder(seed + round).build(deals, table, pool, threads);
+				double seconds = (System.nanoTime() - start) / 1.0E9;
+				System.out.println(String.format("round %d: %d deals in %.1fs (%.0f deals/sec)",
+						round + 1, deals, seconds, deals / seconds));
+			}
+		} finally {
+			pool.shutdown();
+		}
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+			table.write(out);
+		}
+		System.out.println("wrote " + file + " (" + Files.size(file) + " bytes)");
+	}
+}
@@ -0,0 +1,323 @@
+package core.sim;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+/**
+ * A long seeded tournament that saves its progress to a checkpoint file
+ * as it goes, so it can be stopped and resumed without replaying the
+ * games it has finished.
+ *
+ * Game i is played at table i of the seed, and every shuffle comes from
+ * a stream derived from the seed, table and hand number. So the games
+ * finished so far and the position of every random stream are both
+ * given by the number of the first game not yet played, and the
+ * checkpoint only needs that number and the totals so far. Batches are
+ * merged in game order, so every game below the number is finished.
+ *
+ * That only holds if the players are deterministic too: the same
+ * position must always get the same decision. Strategies that stop
+ * searching when a time limit runs out, such as MonteCarloStrategy or
+ * IsmctsStrategy with a time budget, are not, and a resumed campaign of
+ * them won't repeat the games an uninterrupted one would have played.
+ * The checkpoint records a description of the seats, its lineup, and a
+ * campaign only resumes with the same lineup.
+ *
+ * A checkpoint is written to a temporary file, forced to disk and then
+ * moved over the old one, so a crash leaves either the old checkpoint
+ * or the new one, never a mix. It ends with a checksum of its contents.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class Campaign {
+
+	// identifies a checkpoint file, and the layout it was written with
+	private static final int MAGIC = 0x4F484543;
+	private static final int VERSION = 2;
+
+	// games played by a single task
+	private static final int GAMES_PER_TASK = 64;
+
+	private Tournament tournament;
+	private Path checkpoint;
+	private String lineup;
+	private long seed;
+	private long games;
+
+	// the first game not yet played, and the totals of the games before it
+	private long nextGame;
+	private TournamentStats stats;
+
+	// true if progress was loaded from a checkpoint
+	private boolean resumed;
+
+	// set to stop the campaign at the next batch
+	private volatile boolean stopping;
+
+	/**
+	 * Constructor. If the checkpoint file exists the campaign carries on
+	 * from it.
+	 * @param seats the factory for each seat's player
+	 * @param lineup a description of the seats' players and their settings,
+	 * which must match the checkpoint's to resume it
+	 * @param seed the seed
+	 * @param games the number of games in the campaign
+	 * @param checkpoint the checkpoint file
+	 * @throws IOException if the checkpoint exists but can't be read, or is for another campaign or lineup
+	 */
+	public Campaign(SeatFactory[] seats, String lineup, long seed, long games, Path checkpoint)
+			throws IOException {
+		this.tournament = new Tournament(seats);
+		tournament.setSeed(seed);
+		this.lineup = lineup;
+		this.seed = seed;
+		this.games = games;
+		this.checkpoint = checkpoint;
+		this.stats = new TournamentStats(seats.length);
+		if (Files.exists(checkpoint)) {
+			load();
+			if (stats.getSeats() != seats.length) {
+				throw new IOException(checkpoint + " is for a table of " + stats.getSeats() + " seats");
+			}
+			resumed = true;
+		}
+	}
+
+	/**
+	 * Plays the games that are left, saving a checkpoint whenever the
+	 * interval has passed and when the campaign finishes or is stopped.
+	 * If a game fails, the last checkpoint is left as it was.
+	 * @param executor runs the batches of games
+	 * @param checkpointMillis the least time between checkpoints, or 0 to save after every batch
+	 * @param progress where to report each checkpoint, or null
+	 * @return the totals so far
+	 * @throws IOException if a checkpoint can't be written
+	 */
+	public TournamentStats run(ExecutorService executor, long checkpointMillis, PrintStream progress)
+			throws IOException {
+		// keep a few batches queued per thread without submitting the whole campaign
+		int window = 4 * Runtime.getRuntime().availableProcessors();
+		ArrayDeque<Future<TournamentStats>> pending = new ArrayDeque<Future<TournamentStats>>();
+		long next = nextGame;
+		long lastSave = System.nanoTime();
+		try {
+			while (!stopping && (next < games || !pending.isEmpty())) {
+				while (next < games && pending.size() < window) {
+					final long first = next;
+					final int count = (int) Math.min(GAMES_PER_TASK, games - next);
+					pending.add(executor.submit(() -> tournament.playGames(first, count)));
+					next += count;
+				}
+				TournamentStats batch = pending.remove().get();
+				stats.merge(batch);
+				nextGame += batch.getGames();
+				if (System.nanoTime() - lastSave >= checkpointMillis * 1000000L) {
+					save();
+					lastSave = System.nanoTime();
+					if (progress != null) {
+						progress.println(String.format("checkpoint: %d of %d games", nextGame, games));
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			stopping = true;
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Campaign game failed", e.getCause());
+		} finally {
+			for (Future<TournamentStats> f : pending) {
+				f.cancel(true);
+			}
+		}
+		// only reached when finished, stopped or interrupted
+		save();
+		return stats;
+	}
+
+	/**
+	 * Asks a running campaign to stop once its current batch is merged.
+	 * The batches still queued are dropped and a checkpoint is saved.
+	 */
+	public void stop() {
+		stopping = true;
+	}
+
+	/**
+	 * Writes the progress so far to the checkpoint file, atomically.
+	 * @throws IOException if it can't be written
+	 */
+	public synchronized void save() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeLong(seed);
+		out.writeLong(games);
+		out.writeUTF(lineup);
+		out.writeLong(nextGame);
+		stats.write(out);
+		CRC32 crc = new CRC32();
+		crc.update(bytes.toByteArray());
+		out.writeLong(crc.getValue());
+		out.flush();
+
+		Path tmp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+		try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buf = ByteBuffer.wrap(bytes.toByteArray());
+			while (buf.hasRemaining()) {
+				ch.write(buf);
+			}
+			ch.force(true);
+		}
+		try {
+			Files.move(tmp, checkpoint, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING);
+		}
+		syncDirectory(checkpoint.toAbsolutePath().getParent());
+	}
+
+	/**
+	 * Forces a directory's entries to disk, so a rename in it survives a
+	 * crash. Not every platform can open a directory, so failures are ignored.
+	 * @param dir the directory
+	 */
+	private static void syncDirectory(Path dir) {
+		if (dir == null) {
+			return;
+		}
+		try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+			ch.force(true);
+		} catch (IOException e) {
+			// the rename is still atomic, only its durability is left to the OS
+		}
+	}
+
+	private void load() throws IOException {
+		byte[] data = Files.readAllBytes(checkpoint);
+		if (data.length < Long.BYTES) {
+			throw new IOException(checkpoint + " is too short to be a checkpoint");
+		}
+		CRC32 crc = new CRC32();
+		crc.update(data, 0, data.length - Long.BYTES);
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+		if (in.readInt() != MAGIC) {
+			throw new IOException(checkpoint + " is not a checkpoint");
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException(checkpoint + " has unknown version " + version);
+		}
+		long fileSeed = in.readLong();
+		long fileGames = in.readLong();
+		if (fileSeed != seed || fileGames != games) {
+			throw new IOException(checkpoint + " is for seed " + fileSeed + " and " + fileGames + " games");
+		}
+		String fileLineup = in.readUTF();
+		if (!fileLineup.equals(lineup)) {
+			throw new IOException(checkpoint + " is for the lineup \"" + fileLineup + "\", not \"" + lineup + "\"");
+		}
+		long fileNext = in.readLong();
+		TournamentStats fileStats = TournamentStats.read(in);
+		if (in.readLong() != crc.getValue()) {
+			throw new IOException(checkpoint + " fails its checksum");
+		}
+		if (fileNext < 0 || fileNext > games || fileStats.getGames() != fileNext) {
+			throw new IOException(checkpoint + " is inconsistent");
+		}
+		nextGame = fileNext;
+		stats = fileStats;
+	}
+
+	/**
+	 * @return the number of the first game not yet played, which is also the number finished
+	 */
+	public long getNextGame() {
+		return nextGame;
+	}
+
+	public long getGames() {
+		return games;
+	}
+
+	public boolean isFinished() {
+		return nextGame >= games;
+	}
+
+	public boolean isResumed() {
+		return resumed;
+	}
+
+	public TournamentStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * Runs a campaign of standard computer players, resuming it if its
+	 * checkpoint exists. Stopping the process saves a checkpoint first.
+	 * @param args the checkpoint file, and optionally the number of games,
+	 * the number of threads, a seed, and the seconds between checkpoints
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length < 1) {
+			System.out.println("usage: Campaign <checkpoint> [games] [threads] [seed] [seconds between checkpoints]");
+			return;
+		}
+		Path file = Paths.get(args[0]);
+		long games = args.length > 1 ? Long.parseLong(args[1]) : 1000000;
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+		long interval = args.length > 4 ? Long.parseLong(args[4]) : 10;
+
+		SeatFactory[] seats = SeatFactory.standardTable();
+		Campaign campaign = new Campaign(seats, "standard x" + seats.length, seed, games, file);
+		if (campaign.isResumed()) {
+			System.out.println("resuming at game " + campaign.getNextGame() + " of " + games);
+		}
+
+		// on a kill, stop at the next batch and wait for the checkpoint
+		Thread main = Thread.currentThread();
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			campaign.stop();
+			try {
+				main.join(30000);
+			} catch (InterruptedException e) {
+				// give up waiting
+			}
+		}));
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		long start = System.nanoTime();
+		long before = campaign.getNextGame();
+		TournamentStats stats;
+		try {
+			stats = campaign.run(pool, interval * 1000, System.out);
+		} finally {
+			pool.shutdownNow();
+		}
+		double seconds = (System.nanoTime() - start) / 1.0E9;
+		System.out.print(stats);
+		System.out.println(String.format("%.2fs on %d threads (%.0f games/sec), %s", seconds, threads,
+				(campaign.getNextGame() - before) / seconds, campaign.isFinished() ? "finished" : "stopped"));
+	}
+}
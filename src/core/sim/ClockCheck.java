@@ -0,0 +1,96 @@
+package core.sim;
+
+import java.util.Arrays;
+
+import core.GameContext;
+import core.RoundKeeper;
+import util.ManualClock;
+import util.TimerWheel;
+
+/**
+ * Checks that a table's timers run on its clock alone. A seeded game is
+ * played as a scheduled table on a manual clock: whenever the table has
+ * to wait it is parked on a timer wheel, and the clock is moved forward a
+ * tick at a time until the wheel hands it back. No real time passes in
+ * any wait, so the game must end with the same scores as the same seed
+ * played without timers, and at exactly the same time on the clock every
+ * run.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class ClockCheck {
+
+	// the length of a tick on the manual clock, and the slots in the wheel
+	private static final long TICK_MILLIS = 10;
+	private static final int WHEEL_SLOTS = 1024;
+
+	/**
+	 * The end of a game played on a manual clock.
+	 */
+	private static final class Run {
+		private int[] scores;
+		private long finish;
+		private int waits;
+	}
+
+	private static Run playOnManualClock(SeatFactory[] seats, long seed) {
+		ManualClock clock = new ManualClock();
+		GameContext context = new GameContext(true);
+		context.setSeed(seed, 0);
+		context.setScheduled(true);
+		context.setClock(clock);
+		HeadlessGame game = new HeadlessGame(seats, context);
+		RoundKeeper round = game.getRound();
+		TimerWheel<RoundKeeper> wheel = new TimerWheel<RoundKeeper>(WHEEL_SLOTS, TICK_MILLIS, clock.millis());
+
+		Run run = new Run();
+		while (!round.isGameOver()) {
+			round.update();
+			long wake = context.getWakeTime();
+			if (wake != 0 && wake > clock.millis()) {
+				wheel.schedule(round, wake);
+				int fired = 0;
+				while (fired == 0) {
+					clock.advance(TICK_MILLIS);
+					fired = wheel.advance(clock.millis(), r -> { });
+				}
+				run.waits++;
+			}
+		}
+		run.scores = game.getScores();
+		run.finish = clock.millis();
+		return run;
+	}
+
+	/**
+	 * Plays the check for a few seeds and prints each result.
+	 * @param args optionally, the number of seeds to check
+	 */
+	public static void main(String[] args) {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+		SeatFactory[] seats = SeatFactory.standardTable();
+		boolean passed = true;
+		for (long seed = 1; seed <= games; seed++) {
+			HeadlessGame untimed = new HeadlessGame(seats, seed, 0);
+			untimed.play();
+			int[] expected = untimed.getScores();
+
+			long start = System.nanoTime();
+			Run first = playOnManualClock(seats, seed);
+			double seconds = (System.nanoTime() - start) / 1.0E9;
+			Run second = playOnManualClock(seats, seed);
+
+			boolean same = Arrays.equals(expected, first.scores) && Arrays.equals(first.scores, second.scores)
+					&& first.finish == second.finish && first.waits == second.waits;
+			passed &= same;
+			System.out.println(String.format("seed %d: %s, %d waits, %.1f min on the clock in %.2fs, %s",
+					seed, Arrays.toString(first.scores), first.waits, first.finish / 60000.0, seconds,
+					same ? "ok" : "MISMATCH"));
+		}
+		System.out.println(passed ? "passed" : "FAILED");
+		if (!passed) {
+			System.exit(1);
+		}
+	}
+}
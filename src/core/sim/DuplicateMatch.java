@@ -0,0 +1,218 @@
+package core.sim;
+
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import core.player.Player;
+
+/**
+ * Compares two computer strategies in duplicate format. Every deal, a
+ * seeded table whose hands are the same whoever sits at it, is played once
+ * per seat with the lineup rotated one seat each time, so each strategy
+ * plays every seat on the same cards. Scores are then compared deal by
+ * deal, which takes the luck of the cards out of the comparison.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class DuplicateMatch {
+
+	// deals played by a single task
+	private static final int DEALS_PER_TASK = 16;
+
+	private SeatFactory a;
+	private SeatFactory b;
+	private int seatsForA;
+	private long seed;
+
+	/**
+	 * Constructor for one A against a table of B.
+	 * @param a the strategy being tested
+	 * @param b the strategy it is compared to
+	 * @param seed the seed deals are drawn from
+	 */
+	public DuplicateMatch(SeatFactory a, SeatFactory b, long seed) {
+		this(a, b, 1, seed);
+	}
+
+	/**
+	 * Constructor
+	 * @param a the strategy being tested
+	 * @param b the strategy it is compared to
+	 * @param seatsForA the number of seats A plays in each game, from 1 to 3
+	 * @param seed the seed deals are drawn from
+	 */
+	public DuplicateMatch(SeatFactory a, SeatFactory b, int seatsForA, long seed) {
+		if (seatsForA < 1 || seatsForA >= HeadlessGame.NUM_SEATS) {
+			throw new IllegalArgumentException("seatsForA must be from 1 to " + (HeadlessGame.NUM_SEATS - 1));
+		}
+		this.a = a;
+		this.b = b;
+		this.seatsForA = seatsForA;
+		this.seed = seed;
+	}
+
+	/**
+	 * @param rotation the rotation, from 0 to the number of seats - 1
+	 * @param seat the seat
+	 * @return true if the seat plays A in that rotation
+	 */
+	private boolean isSeatA(int rotation, int seat) {
+		int slot = seat - rotation;
+		return (slot < 0 ? slot + HeadlessGame.NUM_SEATS : slot) < seatsForA;
+	}
+
+	/**
+	 * Plays a range of deals on the calling thread.
+	 * @param first the table number of the first deal
+	 * @param deals the number of deals
+	 * @return the results
+	 */
+	public DuplicateStats playDeals(long first, int deals) {
+		DuplicateStats stats = new DuplicateStats();
+		int seats = HeadlessGame.NUM_SEATS;
+		SeatFactory[] lineup = new SeatFactory[seats];
+		for (int d = 0; d < deals; d++) {
+			long totalA = 0;
+			long totalB = 0;
+			for (int rotation = 0; rotation < seats; rotation++) {
+				for (int s = 0; s < seats; s++) {
+					lineup[s] = isSeatA(rotation, s) ? a : b;
+				}
+				HeadlessGame game = new HeadlessGame(lineup, seed, first + d);
+				game.play();
+				for (Player p : game.getSeats()) {
+					boolean isA = isSeatA(rotation, p.getIndex());
+					if (isA) {
+						totalA += p.getScore();
+					} else {
+						totalB += p.getScore();
+					}
+					stats.addSeat(isA, p.getScore());
+				}
+				stats.addGame(isSeatA(rotation, game.getWinner().getIndex()));
+			}
+			stats.addDeal((double) totalA / (seatsForA * seats),
+					(double) totalB / ((seats - seatsForA) * seats));
+		}
+		return stats;
+	}
+
+	/**
+	 * Plays the deals on any executor, split into one batch per task.
+	 * @param deals the number of deals
+	 * @param executor the executor
+	 * @return the merged results
+	 */
+	public DuplicateStats run(int deals, ExecutorService executor) {
+		List<Future<DuplicateStats>> results = new ArrayList<Future<DuplicateStats>>();
+		for (int start = 0; start < deals; start += DEALS_PER_TASK) {
+			final int first = start;
+			final int count = Math.min(DEALS_PER_TASK, deals - start);
+			results.add(executor.submit(() -> playDeals(first, count)));
+		}
+		DuplicateStats stats = new DuplicateStats();
+		try {
+			for (Future<DuplicateStats> result : results) {
+				stats.merge(result.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Duplicate match interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Duplicate match game failed", e.getCause());
+		}
+		return stats;
+	}
+
+	/**
+	 * Plays deals until the test decides the match, or a limit is reached.
+	 * Batches run in parallel but are added in order, so the stopping
+	 * point, and so the result, is the same on any number of threads.
+	 * Batches already running when the match is decided are cancelled.
+	 * @param test the test
+	 * @param maxDeals the most deals to play
+	 * @param executor the executor
+	 * @param progress where to print the interval after every batch, or null
+	 * @return the results up to the point the match was decided
+	 */
+	public DuplicateStats runSequential(SequentialTest test, int maxDeals,
+			ExecutorService executor, PrintStream progress) {
+		// keep a few batches queued per thread without submitting the whole run
+		int window = 4 * Runtime.getRuntime().availableProcessors();
+		ArrayDeque<Future<DuplicateStats>> pending = new ArrayDeque<Future<DuplicateStats>>();
+		DuplicateStats stats = new DuplicateStats();
+		int next = 0;
+		try {
+			while (next < maxDeals || !pending.isEmpty()) {
+				while (next < maxDeals && pending.size() < window) {
+					final int first = next;
+					final int count = Math.min(DEALS_PER_TASK, maxDeals - next);
+					pending.add(executor.submit(() -> playDeals(first, count)));
+					next += count;
+				}
+				stats.merge(pending.remove().get());
+				SequentialTest.Result result = test.check(stats.getDifferences());
+				if (progress != null) {
+					double[] ci = SequentialTest.confidenceInterval(stats.getDifferences(), 1.96);
+					progress.println(String.format(
+							"%d deals: A - B %+.2f, 95%% [%+.2f, %+.2f], LLR A better %+.2f, B better %+.2f"
+									+ " (stop at %+.2f or %+.2f), %s",
+							stats.getDeals(), stats.getMeanDifference(), ci[0], ci[1],
+							test.logLikelihoodRatio(stats.getDifferences(), 1),
+							test.logLikelihoodRatio(stats.getDifferences(), -1),
+							test.getLowerBound(), test.getUpperBound(), result));
+				}
+				if (result != SequentialTest.Result.CONTINUE) {
+					break;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Duplicate match interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Duplicate match game failed", e.getCause());
+		} finally {
+			for (Future<DuplicateStats> f : pending) {
+				f.cancel(true);
+			}
+		}
+		return stats;
+	}
+
+	/**
+	 * Plays a duplicate match of the standard computer player against
+	 * itself and prints the results.
+	 * @param args optionally, the number of deals, the number of threads, a seed,
+	 * and the difference in average score to detect, which stops the match early
+	 */
+	public static void main(String[] args) {
+		int deals = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+
+		DuplicateMatch match = new DuplicateMatch(SeatFactory.DEFAULT, SeatFactory.DEFAULT, seed);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		long start = System.nanoTime();
+		DuplicateStats stats;
+		try {
+			if (args.length > 3) {
+				SequentialTest test = new SequentialTest(Double.parseDouble(args[3]), 0.05, 0.05);
+				stats = match.runSequential(test, deals, pool, System.out);
+			} else {
+				stats = match.run(deals, pool);
+			}
+		} finally {
+			pool.shutdown();
+		}
+		double seconds = (System.nanoTime() - start) / 1.0E9;
+		System.out.print(stats);
+		System.out.println(String.format("%.2fs on %d threads (%.0f games/sec)", seconds, threads, stats.getGames() / seconds));
+	}
+}
@@ -0,0 +1,164 @@
+package core.sim;
+
+/**
+ * Paired results of a duplicate match. For every deal the two strategies
+ * are scored on exactly the same cards, so the difference between their
+ * scores on that deal is free of deal luck. Totals merge exactly, so
+ * workers can combine them at the end.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class DuplicateStats {
+
+	private long deals;
+	private long games;
+
+	// sums over deals of each strategy's average score
+	private double sumA;
+	private double sumB;
+
+	// the paired difference on each deal, A minus B
+	private RunningStats diffs = new RunningStats();
+
+	// games won by a seat playing A
+	private long winsA;
+
+	// the score of every seat each strategy played
+	private RunningStats seatsA = new RunningStats();
+	private RunningStats seatsB = new RunningStats();
+
+	/**
+	 * Adds the results of one deal.
+	 * @param averageA A's average score over the seats it played
+	 * @param averageB B's average score over the seats it played
+	 */
+	public void addDeal(double averageA, double averageB) {
+		deals++;
+		sumA += averageA;
+		sumB += averageB;
+		diffs.add(averageA - averageB);
+	}
+
+	/**
+	 * Adds a finished game to the game counts.
+	 * @param wonByA true if the winner was a seat playing A
+	 */
+	public void addGame(boolean wonByA) {
+		games++;
+		if (wonByA) {
+			winsA++;
+		}
+	}
+
+	/**
+	 * Adds one seat's final score in a game.
+	 * @param isA true if the seat played A
+	 * @param score the score
+	 */
+	public void addSeat(boolean isA, int score) {
+		if (isA) {
+			seatsA.add(score);
+		} else {
+			seatsB.add(score);
+		}
+	}
+
+	/**
+	 * Adds another set of totals to this one.
+	 * @param other the totals to add
+	 * @return this
+	 */
+	public DuplicateStats merge(DuplicateStats other) {
+		deals += other.deals;
+		games += other.games;
+		sumA += other.sumA;
+		sumB += other.sumB;
+		diffs.merge(other.diffs);
+		winsA += other.winsA;
+		seatsA.merge(other.seatsA);
+		seatsB.merge(other.seatsB);
+		return this;
+	}
+
+	public long getDeals() {
+		return deals;
+	}
+
+	public long getGames() {
+		return games;
+	}
+
+	public double getAverageA() {
+		return deals == 0 ? 0 : sumA / deals;
+	}
+
+	public double getAverageB() {
+		return deals == 0 ? 0 : sumB / deals;
+	}
+
+	/**
+	 * @return the average score A made over B on the same deals
+	 */
+	public double getMeanDifference() {
+		return diffs.getMean();
+	}
+
+	/**
+	 * @return the standard error of the mean paired difference
+	 */
+	public double getStandardError() {
+		return diffs.getStandardError();
+	}
+
+	/**
+	 * @return the paired difference on each deal, A minus B
+	 */
+	public RunningStats getDifferences() {
+		return diffs;
+	}
+
+	/**
+	 * The standard error the same number of seats would have given if each
+	 * had been played on its own deal, as a plain tournament does.
+	 * @return the unpaired standard error
+	 */
+	public double getUnpairedStandardError() {
+		if (seatsA.getCount() == 0 || seatsB.getCount() == 0) {
+			return 0;
+		}
+		return Math.sqrt(seatsA.getVariance() / seatsA.getCount()
+				+ seatsB.getVariance() / seatsB.getCount());
+	}
+
+	/**
+	 * @return the mean difference in standard errors, the z score
+	 */
+	public double getZScore() {
+		double se = getStandardError();
+		return se == 0 ? 0 : getMeanDifference() / se;
+	}
+
+	/**
+	 * @return A's share of wins divided by its share of seats, 1 when the strategies are even
+	 */
+	public double getWinShareA() {
+		if (games == 0 || seatsA.getCount() == 0) {
+			return 0;
+		}
+		double share = (double) seatsA.getCount() / (seatsA.getCount() + seatsB.getCount());
+		return ((double) winsA / games) / share;
+	}
+
+	public String toString() {
+		double se = getStandardError();
+		double unpaired = getUnpairedStandardError();
+		StringBuilder sb = new StringBuilder();
+		sb.append(deals).append(" deals, ").append(games).append(" games\n");
+		sb.append(String.format("A avg %7.2f  B avg %7.2f  A wins x%.3f%n", getAverageA(), getAverageB(), getWinShareA()));
+		sb.append(String.format("A - B %+7.2f  +/- %.2f (95%%)  z %.2f%n", getMeanDifference(), 1.96 * se, getZScore()));
+		String fewer = se == 0 ? "n/a" : String.format("%.1fx", (unpaired * unpaired) / (se * se));
+		sb.append(String.format("paired error %.3f, unpaired %.3f, %s fewer games needed%n", se, unpaired, fewer));
+		return sb.toString();
+	}
+}
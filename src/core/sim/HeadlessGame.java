@@ -0,0 +1,148 @@
+package core.sim;
+
+import core.GameContext;
+import core.RoundKeeper;
+import core.card.DealCodec;
+import core.player.ComputerPlayer;
+import core.player.Player;
+import core.player.PlayerQueue;
+
+/**
+ * A full game between computer players with no graphics, images, sound
+ * or display timers. Deals, bids, tricks, scoring and dealer rotation
+ * follow the same RoundKeeper logic as the animated game.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class HeadlessGame {
+
+	// number of seats at the table
+	public static final int NUM_SEATS = 4;
+
+	private GameContext context;
+	private ComputerPlayer[] seats;
+	private PlayerQueue players;
+	private RoundKeeper round;
+
+	/**
+	 * Constructor for a game between standard computer players.
+	 */
+	public HeadlessGame() {
+		this(SeatFactory.standardTable());
+	}
+
+	/**
+	 * Constructor
+	 * @param factories the factory for each seat's player
+	 */
+	public HeadlessGame(SeatFactory[] factories) {
+		this(factories, new GameContext(true));
+	}
+
+	/**
+	 * Constructor for a game whose deals can be replayed.
+	 * @param factories the factory for each seat's player
+	 * @param seed the seed
+	 * @param table the table number, which picks this game's deals for the seed
+	 */
+	public HeadlessGame(SeatFactory[] factories, long seed, long table) {
+		this(factories, seededContext(seed, table));
+	}
+
+	/**
+	 * Constructor
+	 * @param factories the factory for each seat's player
+	 * @param context a headless table, which may be paced or seeded
+	 */
+	public HeadlessGame(SeatFactory[] factories, GameContext context) {
+		seats = new ComputerPlayer[factories.length];
+		for (int i = 0; i < factories.length; i++) {
+			seats[i] = factories[i].create("Seat " + i, i);
+		}
+		this.context = context;
+		players = new PlayerQueue(context, seats);
+		players.shuffle(context.getTableRandom());
+		round = new RoundKeeper(context);
+	}
+
+	private static GameContext seededContext(long seed, long table) {
+		GameContext context = new GameContext(true);
+		context.setSeed(seed, table);
+		return context;
+	}
+
+	/**
+	 * Plays the game to completion.
+	 */
+	public void play() {
+		round.playGame();
+	}
+
+	/**
+	 * Plays a single hand from a deal stored by DealCodec, in place of the 
+	 * next shuffled one. The game goes on from there as usual if play is 
+	 * called afterwards.
+	 * @param index the deal's index, see DealCodec.rankDeal, with hands
+	 * indexed by seat
+	 * @param cardsPerSeat the cards dealt to each seat
+	 * @return the points each seat scored on the hand, indexed by seat
+	 */
+	public int[] playDeal(long index, int cardsPerSeat) {
+		long[] hands = new long[seats.length];
+		int topCard = DealCodec.unrankDeal(index, cardsPerSeat, hands);
+		int[] before = getScores();
+		round.redeal(hands, topCard);
+		int hand = round.getHandNumber();
+		while (round.getHandNumber() == hand && !round.isGameOver()) {
+			round.update();
+		}
+		int[] scores = getScores();
+		for (int i = 0; i < scores.length; i++) {
+			scores[i] -= before[i];
+		}
+		return scores;
+	}
+
+	/**
+	 * @return the final score of each seat, indexed by seat
+	 */
+	public int[] getScores() {
+		int[] scores = new int[seats.length];
+		for (int i = 0; i < seats.length; i++) {
+			scores[i] = seats[i].getScore();
+		}
+		return scores;
+	}
+
+	public RoundKeeper getRound() {
+		return round;
+	}
+
+	public Player getWinner() {
+		return round.getGameWinner();
+	}
+
+	public GameContext getContext() {
+		return context;
+	}
+
+	public ComputerPlayer[] getSeats() {
+		return seats;
+	}
+
+	/**
+	 * Plays a number of games and prints the rate they were played at.
+	 * @param args optionally, the number of games to play
+	 */
+	public static void main(String[] args) {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		long start = System.nanoTime();
+		for (int i = 0; i < games; i++) {
+			new HeadlessGame().play();
+		}
+		double seconds = (System.nanoTime() - start) / 1.0E9;
+		System.out.println(games + " games in " + String.format("%.2f", seconds) +
+				"s (" + String.format("%.0f", games / seconds) + " games/sec)");
+	}
+}
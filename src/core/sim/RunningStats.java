@@ -0,0 +1,68 @@
+package core.sim;
+
+/**
+ * Mean and variance of a stream of values, kept with Welford's update so
+ * they stay accurate over millions of samples. Two sets of stats from
+ * separate workers can be merged exactly.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class RunningStats {
+
+	private long count;
+	private double mean;
+
+	// sum of squared differences from the mean
+	private double m2;
+
+	/**
+	 * Adds a value.
+	 * @param x the value
+	 */
+	public void add(double x) {
+		count++;
+		double delta = x - mean;
+		mean += delta / count;
+		m2 += delta * (x - mean);
+	}
+
+	/**
+	 * Adds every value of another set of stats to this one.
+	 * @param other the stats to add
+	 * @return this
+	 */
+	public RunningStats merge(RunningStats other) {
+		if (other.count == 0) {
+			return this;
+		}
+		long n = count + other.count;
+		double delta = other.mean - mean;
+		mean += delta * other.count / n;
+		m2 += other.m2 + delta * delta * ((double) count * other.count / n);
+		count = n;
+		return this;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public double getMean() {
+		return mean;
+	}
+
+	/**
+	 * @return the sample variance, or 0 with fewer than two values
+	 */
+	public double getVariance() {
+		return count < 2 ? 0 : m2 / (count - 1);
+	}
+
+	/**
+	 * @return the standard error of the mean
+	 */
+	public double getStandardError() {
+		return count == 0 ? 0 : Math.sqrt(getVariance() / count);
+	}
+}
@@ -0,0 +1,246 @@
+package core.sim;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import core.GameContext;
+import core.RoundKeeper;
+import util.GameClock;
+import util.ScaledClock;
+import util.TimerWheel;
+
+/**
+ * Hosts many paced tables on a few threads. Tables are scheduled rather
+ * than slept: a table runs on a worker until it has to wait for a display
+ * or decision time, then it is parked on a shared timer wheel under the
+ * time it will be ready. A ticker thread advances the wheel and hands
+ * back only the tables that are due, so a tick costs time in the number
+ * of tables waking up, not the number of tables open.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class ScheduledTableHost {
+
+	// the length of a tick on the tables' clock, and the slots in the wheel
+	private static final long TICK_MILLIS = 10;
+	private static final int WHEEL_SLOTS = 1024;
+
+	private GameClock clock;
+	private TimerWheel<Table> wheel;
+	private ExecutorService workers;
+	private Thread ticker;
+	private volatile boolean running = true;
+
+	// tables that have parked since the last tick, for the ticker to put on the wheel
+	private ConcurrentLinkedQueue<Table> parked = new ConcurrentLinkedQueue<Table>();
+
+	// tables currently open
+	private AtomicInteger tables = new AtomicInteger();
+
+	// steps taken, games completed, and the time workers spent running tables
+	private LongAdder steps = new LongAdder();
+	private LongAdder gamesCompleted = new LongAdder();
+	private LongAdder busyNanos = new LongAdder();
+
+	// ticks, tables woken, and the time the ticker spent working; only the ticker writes these
+	private volatile long ticks;
+	private volatile long woken;
+	private volatile long tickNanos;
+
+	/**
+	 * A table and the games it has left to play.
+	 */
+	private final class Table implements Runnable {
+		private final SeatFactory[] seats;
+		private final int games;
+		private int played;
+		private GameContext context;
+		private RoundKeeper round;
+		private long wakeTime;
+
+		private Table(SeatFactory[] seats, int games) {
+			this.seats = seats;
+			this.games = games;
+			newGame();
+		}
+
+		private void newGame() {
+			context = new GameContext(true);
+			context.setScheduled(true);
+			context.setClock(clock);
+			round = new HeadlessGame(seats, context).getRound();
+		}
+
+		/**
+		 * Steps the table until it has to wait, or its games are done.
+		 */
+		public void run() {
+			long start = System.nanoTime();
+			try {
+				while (running) {
+					round.update();
+					steps.increment();
+					if (round.isGameOver()) {
+						gamesCompleted.increment();
+						played++;
+						if (games > 0 && played >= games) {
+							tables.decrementAndGet();
+							return;
+						}
+						newGame();
+						continue;
+					}
+					long wake = context.getWakeTime();
+					if (wake != 0 && wake > clock.millis()) {
+						wakeTime = wake;
+						parked.add(this);
+						return;
+					}
+				}
+			} finally {
+				busyNanos.add(System.nanoTime() - start);
+			}
+		}
+	}
+
+	/**
+	 * Constructor. Runs tables on one worker per processor, on real time.
+	 */
+	public ScheduledTableHost() {
+		this(GameClock.SYSTEM, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructor
+	 * @param clock the clock every table's timers read
+	 * @param threads the number of worker threads
+	 */
+	public ScheduledTableHost(GameClock clock, int threads) {
+		this.clock = clock;
+		this.wheel = new TimerWheel<Table>(WHEEL_SLOTS, TICK_MILLIS, clock.millis());
+		this.workers = Executors.newFixedThreadPool(threads, r -> {
+			Thread t = new Thread(r, "table");
+			t.setDaemon(true);
+			return t;
+		});
+		ticker = new Thread(this::tick, "ticker");
+		ticker.setDaemon(true);
+		ticker.start();
+	}
+
+	private void tick() {
+		while (running) {
+			long start = System.nanoTime();
+			Table table;
+			while ((table = parked.poll()) != null) {
+				wheel.schedule(table, table.wakeTime);
+			}
+			int fired = wheel.advance(clock.millis(), workers::execute);
+			woken += fired;
+			ticks++;
+			tickNanos += System.nanoTime() - start;
+			try {
+				clock.sleep(TICK_MILLIS);
+			} catch (InterruptedException e) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Opens a table that plays games back to back.
+	 * @param seats the factory for each seat's player
+	 * @param games the number of games to play, or 0 to play until the host shuts down
+	 */
+	public void openTable(SeatFactory[] seats, int games) {
+		tables.incrementAndGet();
+		workers.execute(new Table(seats, games));
+	}
+
+	/**
+	 * @return the number of tables currently open
+	 */
+	public int getTableCount() {
+		return tables.get();
+	}
+
+	public long getGamesCompleted() {
+		return gamesCompleted.sum();
+	}
+
+	public long getSteps() {
+		return steps.sum();
+	}
+
+	/**
+	 * @return the average number of tables woken by a tick
+	 */
+	public double getMeanWokenPerTick() {
+		long n = ticks;
+		return n == 0 ? 0 : (double) woken / n;
+	}
+
+	/**
+	 * @return the average time the ticker spent on a tick, in microseconds
+	 */
+	public double getMeanTickMicros() {
+		long n = ticks;
+		return n == 0 ? 0 : tickNanos / 1.0E3 / n;
+	}
+
+	/**
+	 * @return the total time workers have spent running tables, in nanoseconds
+	 */
+	public long getBusyNanos() {
+		return busyNanos.sum();
+	}
+
+	/**
+	 * Closes every table and waits for the workers to finish.
+	 * @param timeoutMillis the longest time to wait
+	 * @return true if every worker finished
+	 */
+	public boolean shutdown(long timeoutMillis) throws InterruptedException {
+		running = false;
+		ticker.interrupt();
+		ticker.join(timeoutMillis);
+		workers.shutdownNow();
+		return workers.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public String toString() {
+		return String.format("%d tables, %d games, %d steps, tick %.1f us avg with %.1f tables woken",
+				getTableCount(), getGamesCompleted(), getSteps(), getMeanTickMicros(), getMeanWokenPerTick());
+	}
+
+	/**
+	 * Opens a number of tables and reports on them every few seconds.
+	 * @param args optionally, the number of tables, the seconds to run for, and the clock speed
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+		double speed = args.length > 2 ? Double.parseDouble(args[2]) : 1;
+
+		SeatFactory[] seats = SeatFactory.standardTable();
+
+		ScheduledTableHost host = new ScheduledTableHost(new ScaledClock(speed),
+				Runtime.getRuntime().availableProcessors());
+		for (int i = 0; i < count; i++) {
+			host.openTable(seats, 0);
+		}
+		for (int t = 0; t < seconds; t += 5) {
+			Thread.sleep(5000);
+			Runtime rt = Runtime.getRuntime();
+			long used = rt.totalMemory() - rt.freeMemory();
+			System.out.println(host + String.format(", %.1f KB heap per table",
+					used / 1024.0 / Math.max(1, host.getTableCount())));
+		}
+		host.shutdown(10000);
+	}
+}
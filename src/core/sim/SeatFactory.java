@@ -0,0 +1,46 @@
+package core.sim;
+
+import core.ai.BotStrategy;
+import core.player.ComputerPlayer;
+
+/**
+ * Creates the computer player for a seat in a simulated game.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public interface SeatFactory {
+
+	/**
+	 * The standard computer player.
+	 */
+	SeatFactory DEFAULT = ComputerPlayer::new;
+
+	/**
+	 * @param strategy the strategy
+	 * @return a factory for computer players that use the strategy
+	 */
+	static SeatFactory of(BotStrategy strategy) {
+		return (name, index) -> new ComputerPlayer(name, index, strategy);
+	}
+
+	/**
+	 * @return a factory for every seat at the table, all standard computer players
+	 */
+	static SeatFactory[] standardTable() {
+		SeatFactory[] seats = new SeatFactory[HeadlessGame.NUM_SEATS];
+		for (int i = 0; i < seats.length; i++) {
+			seats[i] = DEFAULT;
+		}
+		return seats;
+	}
+
+	/**
+	 * Creates a new player. Called once per seat per game, possibly from
+	 * several threads at once.
+	 * @param name the player's name
+	 * @param index the seat index
+	 * @return the player
+	 */
+	ComputerPlayer create(String name, int index);
+}
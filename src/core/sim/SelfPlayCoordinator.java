@@ -0,0 +1,410 @@
+package core.sim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays a seeded tournament across several worker JVMs on this machine,
+ * so no one heap has to hold a large campaign. Workers connect back over
+ * loopback sockets and are given contiguous ranges of game numbers; see
+ * WorkerProtocol. When a worker runs out, the coordinator takes the back
+ * half of the busiest worker's remaining range and gives it to the idle
+ * one. Totals stream back a batch at a time and are merged as they come.
+ *
+ * Games are seeded by their number, so the merged totals are the same as
+ * a Tournament of the same seed, however the games were spread. If a
+ * worker dies, the games it had not reported are handed out again.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class SelfPlayCoordinator {
+
+	// how long to wait for worker processes to exit
+	private static final long EXIT_TIMEOUT_MILLIS = 10000;
+
+	/**
+	 * The coordinator's side of a connection to a worker.
+	 */
+	private static final class Link {
+		private final int id;
+		private final Socket socket;
+		private final DataOutputStream out;
+		private boolean alive = true;
+
+		// results are back for the range up to done, and the worker stops at end
+		private long done;
+		private long end;
+
+		// the idle worker waiting on this one to answer a STEAL, if any
+		private Link thief;
+
+		private Link(int id, Socket socket, DataOutputStream out) {
+			this.id = id;
+			this.socket = socket;
+			this.out = out;
+		}
+
+		private boolean isIdle() {
+			return done >= end;
+		}
+
+		private long getRemaining() {
+			return end - done;
+		}
+	}
+
+	/**
+	 * Something that happened on a link, passed from its reader thread to the coordinator.
+	 */
+	private static final class Event {
+		private static final byte CONNECTED = 0;
+		private static final byte DISCONNECTED = -1;
+
+		// a worker process exited, with no link
+		private static final byte EXITED = -2;
+
+		private final Link link;
+		private final byte type;
+		private long value;
+		private int count;
+		private TournamentStats stats;
+
+		private Event(Link link, byte type) {
+			this.link = link;
+			this.type = type;
+		}
+	}
+
+	private long seed;
+	private long games;
+	private int workerCount;
+
+	private BlockingQueue<Event> events = new LinkedBlockingQueue<Event>();
+	private List<Link> links = new ArrayList<Link>();
+
+	// ranges no worker holds, from the start or from workers that died
+	private ArrayDeque<long[]> unassigned = new ArrayDeque<long[]>();
+
+	private TournamentStats stats;
+	private long finished;
+	private int steals;
+
+	// worker processes started and exited, so workers that die before they say hello are noticed
+	private int started;
+	private int exited;
+
+	/**
+	 * Constructor
+	 * @param seed the seed
+	 * @param games the number of games
+	 * @param workers the number of worker JVMs to start
+	 */
+	public SelfPlayCoordinator(long seed, long games, int workers) {
+		this.seed = seed;
+		this.games = games;
+		this.workerCount = workers;
+		this.stats = new TournamentStats(HeadlessGame.NUM_SEATS);
+		// one range per worker to begin with; stealing evens them out
+		long per = (games + workers - 1) / workers;
+		for (long first = 0; first < games; first += per) {
+			unassigned.add(new long[] { first, Math.min(games, first + per) });
+		}
+	}
+
+	/**
+	 * Starts the workers, plays every game and shuts the workers down.
+	 * @param progress where to report progress, or null
+	 * @return the merged totals
+	 */
+	public TournamentStats run(PrintStream progress) throws IOException, InterruptedException {
+		List<Process> processes = new ArrayList<Process>();
+		try (ServerSocket server = new ServerSocket(0, workerCount, InetAddress.getLoopbackAddress())) {
+			Thread acceptor = new Thread(() -> accept(server), "acceptor");
+			acceptor.setDaemon(true);
+			acceptor.start();
+			for (int i = 0; i < workerCount; i++) {
+				Process p = startWorker(server.getLocalPort());
+				processes.add(p);
+				started++;
+				p.onExit().thenRun(() -> events.add(new Event(null, Event.EXITED)));
+			}
+
+			long reportEvery = Math.max(WorkerProtocol.BATCH, games / 10);
+			long nextReport = reportEvery;
+			while (finished < games) {
+				Event e = events.take();
+				handle(e);
+				if (progress != null && finished >= nextReport) {
+					progress.println(String.format("%d of %d games, %d steals", finished, games, steals));
+					nextReport += reportEvery;
+				}
+			}
+			for (Link link : links) {
+				if (link.alive) {
+					send(link, WorkerProtocol.QUIT);
+				}
+			}
+		} finally {
+			for (Process p : processes) {
+				if (!p.waitFor(EXIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+					p.destroyForcibly();
+				}
+			}
+			for (Link link : links) {
+				link.socket.close();
+			}
+		}
+		return stats;
+	}
+
+	/**
+	 * Starts a worker JVM on this JVM's class path, without a display.
+	 * @param port the port to connect back to
+	 * @return the process
+	 */
+	private static Process startWorker(int port) throws IOException {
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		ProcessBuilder pb = new ProcessBuilder(java, "-Djava.awt.headless=true",
+				"-cp", System.getProperty("java.class.path"),
+				SelfPlayWorker.class.getName(), Integer.toString(port));
+		pb.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+		pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+		return pb.start();
+	}
+
+	private void accept(ServerSocket server) {
+		int id = 0;
+		while (!server.isClosed()) {
+			try {
+				Socket socket = server.accept();
+				socket.setTcpNoDelay(true);
+				DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+				if (in.readByte() != WorkerProtocol.HELLO || in.readInt() != WorkerProtocol.MAGIC) {
+					socket.close();
+					continue;
+				}
+				Link link = new Link(id++, socket, out);
+				Thread reader = new Thread(() -> read(link, in), "worker-" + link.id);
+				reader.setDaemon(true);
+				reader.start();
+				events.add(new Event(link, Event.CONNECTED));
+			} catch (IOException e) {
+				// the server was closed, or a connection failed before it said hello
+			}
+		}
+	}
+
+	private void read(Link link, DataInputStream in) {
+		try {
+			while (true) {
+				byte tag = in.readByte();
+				Event e = new Event(link, tag);
+				if (tag == WorkerProtocol.RESULT) {
+					e.value = in.readLong();
+					e.count = in.readInt();
+					e.stats = TournamentStats.read(in);
+				} else if (tag == WorkerProtocol.TRIMMED) {
+					e.value = in.readLong();
+				} else {
+					throw new IOException("Unknown message " + tag);
+				}
+				events.add(e);
+			}
+		} catch (IOException e) {
+			events.add(new Event(link, Event.DISCONNECTED));
+		}
+	}
+
+	private void handle(Event e) {
+		Link link = e.link;
+		switch (e.type) {
+		case Event.CONNECTED:
+			links.add(link);
+			findWork(link);
+			break;
+
+		case WorkerProtocol.RESULT:
+			if (e.value != link.done) {
+				throw new IllegalStateException("Worker " + link.id + " reported games out of order");
+			}
+			stats.merge(e.stats);
+			link.done += e.count;
+			finished += e.count;
+			if (link.isIdle()) {
+				findWork(link);
+			}
+			break;
+
+		case WorkerProtocol.TRIMMED:
+			long oldEnd = link.end;
+			link.end = e.value;
+			Link thief = link.thief;
+			link.thief = null;
+			if (thief != null && thief.alive) {
+				if (link.end < oldEnd) {
+					steals++;
+					assign(thief, link.end, oldEnd);
+				} else {
+					findWork(thief);
+				}
+			} else if (link.end < oldEnd) {
+				// the thief died while waiting
+				unassigned.add(new long[] { link.end, oldEnd });
+			}
+			if (link.isIdle()) {
+				findWork(link);
+			}
+			break;
+
+		case Event.DISCONNECTED:
+			if (!link.alive) {
+				break;
+			}
+			link.alive = false;
+			if (link.done < link.end) {
+				unassigned.add(new long[] { link.done, link.end });
+				link.end = link.done;
+			}
+			if (link.thief != null) {
+				Link waiting = link.thief;
+				link.thief = null;
+				findWork(waiting);
+			}
+			for (Link l : links) {
+				if (l.alive && l.isIdle() && !isWaiting(l)) {
+					findWork(l);
+				}
+			}
+			checkWorkersLeft();
+			break;
+
+		case Event.EXITED:
+			exited++;
+			checkWorkersLeft();
+			break;
+
+		default:
+			throw new IllegalStateException("Unexpected event " + e.type);
+		}
+	}
+
+	/**
+	 * Fails the run once no worker is left to play the remaining games:
+	 * every process has exited and no connection is still open. Workers
+	 * that exit before connecting, such as from a bad class path, only
+	 * show up here.
+	 */
+	private void checkWorkersLeft() {
+		if (finished >= games || exited < started) {
+			return;
+		}
+		for (Link l : links) {
+			if (l.alive) {
+				return;
+			}
+		}
+		throw new IllegalStateException("Every worker has died");
+	}
+
+	/**
+	 * Gives an idle worker a range that nobody holds, or else asks the
+	 * busiest worker for the back half of its range. If nothing is worth
+	 * stealing the worker stays idle.
+	 * @param link the idle worker
+	 */
+	private void findWork(Link link) {
+		if (!link.alive) {
+			return;
+		}
+		if (!unassigned.isEmpty()) {
+			long[] range = unassigned.remove();
+			assign(link, range[0], range[1]);
+			return;
+		}
+		Link victim = null;
+		for (Link l : links) {
+			if (l != link && l.alive && l.thief == null
+					&& (victim == null || l.getRemaining() > victim.getRemaining())) {
+				victim = l;
+			}
+		}
+		// the victim keeps the batch it is playing and at least one more
+		if (victim != null && victim.getRemaining() > 2 * WorkerProtocol.BATCH) {
+			victim.thief = link;
+			send(victim, WorkerProtocol.STEAL, victim.end - victim.getRemaining() / 2);
+		}
+	}
+
+	private boolean isWaiting(Link link) {
+		for (Link l : links) {
+			if (l.thief == link) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void assign(Link link, long first, long end) {
+		link.done = first;
+		link.end = end;
+		send(link, WorkerProtocol.ASSIGN, seed, first, end);
+	}
+
+	/**
+	 * Sends a message. If the worker has gone the write fails quietly; its
+	 * reader sees the same and the range is handed out again.
+	 * @param link the worker
+	 * @param tag the message
+	 * @param fields the message's fields
+	 */
+	private static void send(Link link, byte tag, long... fields) {
+		try {
+			link.out.writeByte(tag);
+			for (long f : fields) {
+				link.out.writeLong(f);
+			}
+			link.out.flush();
+		} catch (IOException e) {
+			// handled when the link's reader reports the disconnect
+		}
+	}
+
+	public int getSteals() {
+		return steals;
+	}
+
+	/**
+	 * Plays a seeded tournament of standard computer players across worker
+	 * JVMs and prints the results.
+	 * @param args optionally, the number of games, the number of workers and a seed
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		long games = args.length > 0 ? Long.parseLong(args[0]) : 100000;
+		int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+		SelfPlayCoordinator coordinator = new SelfPlayCoordinator(seed, games, workers);
+		long start = System.nanoTime();
+		TournamentStats stats = coordinator.run(System.out);
+		double seconds = (System.nanoTime() - start) / 1.0E9;
+		System.out.print(stats);
+		System.out.println(String.format("%.2fs on %d workers (%.0f games/sec), %d steals",
+				seconds, workers, games / seconds, coordinator.getSteals()));
+	}
+}
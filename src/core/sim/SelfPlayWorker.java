@@ -0,0 +1,150 @@
+package core.sim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * A worker JVM for a SelfPlayCoordinator. It connects back to the
+ * coordinator, plays the ranges of seeded games it is given in batches,
+ * and sends the totals of each batch back. The coordinator can take back
+ * the end of its range at any time to give to an idle worker.
+ *
+ * Only headless games are played, so nothing here loads AWT, Swing or
+ * sound; the coordinator also starts workers with java.awt.headless set.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class SelfPlayWorker {
+
+	private DataInputStream in;
+	private DataOutputStream out;
+
+	private Tournament tournament;
+	private long seed;
+	private boolean assigned;
+
+	// the next game to start and the end of the range, guarded by this
+	private long next;
+	private long end;
+	private boolean quit;
+
+	/**
+	 * Constructor
+	 * @param socket the connection to the coordinator
+	 */
+	public SelfPlayWorker(Socket socket) throws IOException {
+		socket.setTcpNoDelay(true);
+		in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+	}
+
+	/**
+	 * Plays whatever the coordinator assigns until it says to quit. The
+	 * calling thread plays; a second thread reads the coordinator's messages.
+	 */
+	public void run() throws IOException {
+		synchronized (out) {
+			out.writeByte(WorkerProtocol.HELLO);
+			out.writeInt(WorkerProtocol.MAGIC);
+			out.flush();
+		}
+		Thread reader = new Thread(this::readMessages, "coordinator");
+		reader.setDaemon(true);
+		reader.start();
+
+		while (true) {
+			long first;
+			int count;
+			synchronized (this) {
+				while (!quit && next >= end) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				if (quit) {
+					return;
+				}
+				first = next;
+				count = (int) Math.min(WorkerProtocol.BATCH, end - next);
+				next += count;
+			}
+			TournamentStats stats = tournament.playGames(first, count);
+			synchronized (out) {
+				out.writeByte(WorkerProtocol.RESULT);
+				out.writeLong(first);
+				out.writeInt(count);
+				stats.write(out);
+				out.flush();
+			}
+		}
+	}
+
+	private void readMessages() {
+		try {
+			while (true) {
+				byte tag = in.readByte();
+				if (tag == WorkerProtocol.ASSIGN) {
+					long s = in.readLong();
+					long first = in.readLong();
+					long last = in.readLong();
+					synchronized (this) {
+						if (!assigned || s != seed) {
+							seed = s;
+							tournament = new Tournament(SeatFactory.standardTable());
+							tournament.setSeed(seed);
+							assigned = true;
+						}
+						next = first;
+						end = last;
+						notifyAll();
+					}
+				} else if (tag == WorkerProtocol.STEAL) {
+					long proposed = in.readLong();
+					long kept;
+					synchronized (this) {
+						// games already started stay with this worker
+						end = Math.min(end, Math.max(proposed, next));
+						kept = end;
+					}
+					synchronized (out) {
+						out.writeByte(WorkerProtocol.TRIMMED);
+						out.writeLong(kept);
+						out.flush();
+					}
+				} else if (tag == WorkerProtocol.QUIT) {
+					break;
+				} else {
+					throw new IOException("Unknown message " + tag);
+				}
+			}
+		} catch (EOFException e) {
+			// the coordinator has gone
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		synchronized (this) {
+			quit = true;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Connects to a coordinator on this machine and works for it.
+	 * @param args the coordinator's port
+	 */
+	public static void main(String[] args) throws IOException {
+		int port = Integer.parseInt(args[0]);
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+			new SelfPlayWorker(socket).run();
+		}
+	}
+}
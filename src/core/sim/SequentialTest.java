@@ -0,0 +1,109 @@
+package core.sim;
+
+/**
+ * A sequential probability ratio test on a stream of score differences,
+ * A minus B. It checks after every batch whether the difference is
+ * decided, so a match can stop as soon as it is. Each side is a one-sided
+ * test of "no difference" against "better by at least delta", using a
+ * normal model with the sample variance. The match is decided once one
+ * side proves better, or both sides prove they are not.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class SequentialTest {
+
+	/**
+	 * The state of the test.
+	 */
+	public enum Result {
+		CONTINUE, A_BETTER, B_BETTER, NO_DIFFERENCE
+	}
+
+	// samples needed before the sample variance is trusted
+	public static final int MIN_SAMPLES = 30;
+
+	// the smallest variance used, so identical strategies still decide
+	private static final double MIN_VARIANCE = 1.0E-9;
+
+	private double delta;
+	private double lower;
+	private double upper;
+
+	/**
+	 * Constructor
+	 * @param delta the smallest difference in average score worth detecting
+	 * @param alpha the chance of calling a difference when there is none, per side
+	 * @param beta the chance of missing a difference of delta
+	 */
+	public SequentialTest(double delta, double alpha, double beta) {
+		if (delta <= 0) {
+			throw new IllegalArgumentException("delta must be positive");
+		}
+		this.delta = delta;
+		this.lower = Math.log(beta / (1 - alpha));
+		this.upper = Math.log((1 - beta) / alpha);
+	}
+
+	/**
+	 * The log likelihood ratio of a mean difference of delta against no
+	 * difference, for A better when sign is 1 and B better when it is -1.
+	 * @param diffs the differences so far
+	 * @param sign 1 or -1
+	 * @return the ratio
+	 */
+	public double logLikelihoodRatio(RunningStats diffs, int sign) {
+		double variance = Math.max(diffs.getVariance(), MIN_VARIANCE);
+		return diffs.getCount() * delta / variance * (sign * diffs.getMean() - delta / 2);
+	}
+
+	/**
+	 * @param diffs the differences so far
+	 * @return whether to keep going, and if not, the decision
+	 */
+	public Result check(RunningStats diffs) {
+		if (diffs.getCount() < MIN_SAMPLES) {
+			return Result.CONTINUE;
+		}
+		double forA = logLikelihoodRatio(diffs, 1);
+		double forB = logLikelihoodRatio(diffs, -1);
+		if (forA >= upper) {
+			return Result.A_BETTER;
+		}
+		if (forB >= upper) {
+			return Result.B_BETTER;
+		}
+		if (forA <= lower && forB <= lower) {
+			return Result.NO_DIFFERENCE;
+		}
+		return Result.CONTINUE;
+	}
+
+	/**
+	 * @param diffs the differences so far
+	 * @param z the normal quantile, 1.96 for 95%
+	 * @return the confidence interval for the mean difference, low then high
+	 */
+	public static double[] confidenceInterval(RunningStats diffs, double z) {
+		double half = z * diffs.getStandardError();
+		return new double[] {diffs.getMean() - half, diffs.getMean() + half};
+	}
+
+	public double getDelta() {
+		return delta;
+	}
+
+	/**
+	 * @return the log likelihood ratio at or below which a side proves it is not better
+	 */
+	public double getLowerBound() {
+		return lower;
+	}
+
+	/**
+	 * @return the log likelihood ratio at or above which a side proves it is better
+	 */
+	public double getUpperBound() {
+		return upper;
+	}
+}
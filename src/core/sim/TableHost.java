@@ -0,0 +1,192 @@
+package core.sim;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import core.GameContext;
+import core.RoundKeeper;
+
+/**
+ * Hosts many paced tables at once, each running its games on its own
+ * thread. Display and decision times are spent sleeping, so on a runtime
+ * with virtual threads an idle table costs no carrier thread at all.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class TableHost {
+
+	private ExecutorService executor;
+	private boolean virtualThreads;
+	private int carriers;
+	private long startNanos;
+
+	// tables currently running
+	private AtomicInteger tables = new AtomicInteger();
+
+	// steps taken, the time spent running them, their latency, and the slowest step
+	private LongAdder steps = new LongAdder();
+	private LongAdder busyNanos = new LongAdder();
+	private LongAdder stepNanos = new LongAdder();
+	private LongAccumulator maxStepNanos = new LongAccumulator(Math::max, 0);
+	private LongAdder gamesCompleted = new LongAdder();
+
+	/**
+	 * Constructor. Uses one virtual thread per table when the runtime
+	 * supports them, and one platform thread per table otherwise.
+	 */
+	public TableHost() {
+		executor = newVirtualThreadExecutor();
+		virtualThreads = executor != null;
+		if (!virtualThreads) {
+			executor = Executors.newCachedThreadPool(r -> {
+				Thread t = new Thread(r, "table");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+		carriers = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+				Runtime.getRuntime().availableProcessors());
+		startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Looks up Executors.newVirtualThreadPerTaskExecutor, which only exists
+	 * on Java 21 and later.
+	 * @return the executor, or null if virtual threads are not available
+	 */
+	private static ExecutorService newVirtualThreadExecutor() {
+		try {
+			Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) m.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Opens a table that plays games back to back.
+	 * @param seats the factory for each seat's player
+	 * @param games the number of games to play, or 0 to play until the host shuts down
+	 * @return the table's future, which can be cancelled to close the table
+	 */
+	public Future<?> openTable(SeatFactory[] seats, int games) {
+		return executor.submit(() -> runTable(seats, games));
+	}
+
+	private void runTable(SeatFactory[] seats, int games) {
+		tables.incrementAndGet();
+		try {
+			for (int played = 0; games <= 0 || played < games; played++) {
+				GameContext context = new GameContext(true);
+				context.setPaced(true);
+				HeadlessGame game = new HeadlessGame(seats, context);
+				RoundKeeper round = game.getRound();
+				while (!round.isGameOver()) {
+					if (Thread.currentThread().isInterrupted()) {
+						return;
+					}
+					long paused = context.getPausedNanos();
+					long slept = context.getSleptNanos();
+					long start = System.nanoTime();
+					round.update();
+					long wall = System.nanoTime() - start;
+					long step = wall - (context.getPausedNanos() - paused);
+					steps.increment();
+					busyNanos.add(wall - (context.getSleptNanos() - slept));
+					stepNanos.add(step);
+					maxStepNanos.accumulate(step);
+				}
+				gamesCompleted.increment();
+			}
+		} finally {
+			tables.decrementAndGet();
+		}
+	}
+
+	/**
+	 * @return the number of tables currently running
+	 */
+	public int getTableCount() {
+		return tables.get();
+	}
+
+	public long getGamesCompleted() {
+		return gamesCompleted.sum();
+	}
+
+	public boolean isUsingVirtualThreads() {
+		return virtualThreads;
+	}
+
+	/**
+	 * The fraction of the carrier threads' time spent running table steps
+	 * rather than waiting, since the host started.
+	 * @return the utilization, from 0 to 1
+	 */
+	public double getCarrierUtilization() {
+		long elapsed = System.nanoTime() - startNanos;
+		return elapsed == 0 ? 0 : (double) busyNanos.sum() / ((double) elapsed * carriers);
+	}
+
+	/**
+	 * The average time a step took, not counting the time it was meant to
+	 * sleep. This includes any delay in waking the table up again.
+	 * @return the latency in milliseconds
+	 */
+	public double getMeanStepLatencyMillis() {
+		long n = steps.sum();
+		return n == 0 ? 0 : stepNanos.sum() / 1.0E6 / n;
+	}
+
+	public double getMaxStepLatencyMillis() {
+		return maxStepNanos.get() / 1.0E6;
+	}
+
+	/**
+	 * Closes every table and waits for their threads to finish.
+	 * @param timeoutMillis the longest time to wait
+	 * @return true if every table finished
+	 */
+	public boolean shutdown(long timeoutMillis) throws InterruptedException {
+		executor.shutdownNow();
+		return executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public String toString() {
+		return String.format("%d tables, %d games, carriers %.1f%% busy, step latency %.3f ms avg %.1f ms max",
+				getTableCount(), getGamesCompleted(), getCarrierUtilization() * 100,
+				getMeanStepLatencyMillis(), getMaxStepLatencyMillis());
+	}
+
+	/**
+	 * Opens a number of tables and reports on them every few seconds.
+	 * @param args optionally, the number of tables and the seconds to run for
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+
+		SeatFactory[] seats = SeatFactory.standardTable();
+
+		TableHost host = new TableHost();
+		System.out.println("virtual threads: " + host.isUsingVirtualThreads());
+		for (int i = 0; i < count; i++) {
+			host.openTable(seats, 0);
+		}
+		for (int t = 0; t < seconds; t += 5) {
+			Thread.sleep(5000);
+			Runtime rt = Runtime.getRuntime();
+			long used = rt.totalMemory() - rt.freeMemory();
+			System.out.println(host + String.format(", %.1f KB heap per table",
+					used / 1024.0 / Math.max(1, host.getTableCount())));
+		}
+		host.shutdown(10000);
+	}
+}
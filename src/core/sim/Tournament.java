@@ -0,0 +1,172 @@
+package core.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays many headless games between computer players in parallel and 
+ * merges the per-seat results. Games share nothing, so each worker keeps
+ * its own totals and they are only combined once the worker is finished.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class Tournament {
+
+	// games played by a single task before it stops splitting
+	private static final int GAMES_PER_TASK = 64;
+
+	private SeatFactory[] seats;
+
+	// if seeded, game i is played at table i of this seed
+	private boolean seeded;
+	private long seed;
+
+	/**
+	 * Constructor for a tournament of standard computer players.
+	 */
+	public Tournament() {
+		this(SeatFactory.standardTable());
+	}
+
+	/**
+	 * Constructor
+	 * @param seats the factory for each seat's player
+	 */
+	public Tournament(SeatFactory[] seats) {
+		this.seats = seats;
+	}
+
+	/**
+	 * Seeds the tournament, so every game can be replayed from the seed 
+	 * and its game number, however the games are spread over threads.
+	 * @param seed the seed
+	 */
+	public void setSeed(long seed) {
+		this.seeded = true;
+		this.seed = seed;
+	}
+
+	/**
+	 * Plays the games on the common fork join pool.
+	 * @param games the number of games
+	 * @return the merged results
+	 */
+	public TournamentStats run(int games) {
+		return run(games, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Plays the games on the given fork join pool.
+	 * @param games the number of games
+	 * @param pool the pool
+	 * @return the merged results
+	 */
+	public TournamentStats run(int games, ForkJoinPool pool) {
+		return pool.invoke(new GamesTask(0, games));
+	}
+
+	/**
+	 * Plays the games on any executor, split into one batch per task.
+	 * @param games the number of games
+	 * @param executor the executor
+	 * @return the merged results
+	 */
+	public TournamentStats run(int games, ExecutorService executor) {
+		List<Future<TournamentStats>> results = new ArrayList<Future<TournamentStats>>();
+		for (int start = 0; start < games; start += GAMES_PER_TASK) {
+			final int first = start;
+			final int count = Math.min(GAMES_PER_TASK, games - start);
+			results.add(executor.submit(() -> playGames(first, count)));
+		}
+		TournamentStats stats = new TournamentStats(seats.length);
+		try {
+			for (Future<TournamentStats> result : results) {
+				stats.merge(result.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Tournament interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Tournament game failed", e.getCause());
+		}
+		return stats;
+	}
+
+	/**
+	 * Plays a range of games on the calling thread.
+	 * @param first the number of the first game
+	 * @param games the number of games
+	 * @return the results
+	 */
+	public TournamentStats playGames(long first, int games) {
+		TournamentStats stats = new TournamentStats(seats.length);
+		for (int i = 0; i < games; i++) {
+			HeadlessGame game = seeded 
+					? new HeadlessGame(seats, seed, first + i) 
+					: new HeadlessGame(seats);
+			game.play();
+			stats.addGame(game);
+		}
+		return stats;
+	}
+
+	/**
+	 * Splits a range of games in half until it is small enough to play.
+	 */
+	private class GamesTask extends RecursiveTask<TournamentStats> {
+
+		private static final long serialVersionUID = 1L;
+
+		private int start;
+		private int end;
+
+		GamesTask(int start, int end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected TournamentStats compute() {
+			if (end - start <= GAMES_PER_TASK) {
+				return playGames(start, end - start);
+			}
+			int mid = (start + end) >>> 1;
+			GamesTask left = new GamesTask(start, mid);
+			left.fork();
+			TournamentStats right = new GamesTask(mid, end).compute();
+			return right.merge(left.join());
+		}
+	}
+
+	/**
+	 * Runs a tournament and prints the results and the rate games were played at.
+	 * @param args optionally, the number of games, the number of threads and a seed
+	 */
+	public static void main(String[] args) {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+		Tournament tournament = new Tournament();
+		if (args.length > 2) {
+			tournament.setSeed(Long.parseLong(args[2]));
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		long start = System.nanoTime();
+		TournamentStats stats;
+		try {
+			stats = tournament.run(games, pool);
+		} finally {
+			pool.shutdown();
+		}
+		double seconds = (System.nanoTime() - start) / 1.0E9;
+		System.out.print(stats);
+		System.out.println(String.format("%.2fs on %d threads (%.0f games/sec)", seconds, threads, games / seconds));
+	}
+}
@@ -0,0 +1,151 @@
+package core.sim;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Per-seat totals over a set of simulated games. Each worker fills its own
+ * instance and the results are merged at the end, so nothing is shared
+ * while games are running.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class TournamentStats {
+
+	private long games;
+	private long[] scoreTotals;
+	private long[] wins;
+	private long[] hands;
+	private long[] handsSet;
+	private long[] tricksMissed;
+
+	/**
+	 * Constructor
+	 * @param seats the number of seats at the table
+	 */
+	public TournamentStats(int seats) {
+		scoreTotals = new long[seats];
+		wins = new long[seats];
+		hands = new long[seats];
+		handsSet = new long[seats];
+		tricksMissed = new long[seats];
+	}
+
+	/**
+	 * Adds the results of a finished game.
+	 * @param game the game
+	 */
+	public void addGame(HeadlessGame game) {
+		games++;
+		for (int i = 0; i < scoreTotals.length; i++) {
+			scoreTotals[i] += game.getSeats()[i].getScore();
+			hands[i] += game.getSeats()[i].getHandsPlayed();
+			handsSet[i] += game.getSeats()[i].getHandsSet();
+			tricksMissed[i] += game.getSeats()[i].getTricksMissed();
+		}
+		wins[game.getWinner().getIndex()]++;
+	}
+
+	/**
+	 * Adds another set of totals to this one.
+	 * @param other the totals to add
+	 * @return this
+	 */
+	public TournamentStats merge(TournamentStats other) {
+		games += other.games;
+		for (int i = 0; i < scoreTotals.length; i++) {
+			scoreTotals[i] += other.scoreTotals[i];
+			wins[i] += other.wins[i];
+			hands[i] += other.hands[i];
+			handsSet[i] += other.handsSet[i];
+			tricksMissed[i] += other.tricksMissed[i];
+		}
+		return this;
+	}
+
+	/**
+	 * Writes the totals, for a checkpoint.
+	 * @param out the output
+	 */
+	public void write(DataOutput out) throws IOException {
+		out.writeInt(scoreTotals.length);
+		out.writeLong(games);
+		for (int i = 0; i < scoreTotals.length; i++) {
+			out.writeLong(scoreTotals[i]);
+			out.writeLong(wins[i]);
+			out.writeLong(hands[i]);
+			out.writeLong(handsSet[i]);
+			out.writeLong(tricksMissed[i]);
+		}
+	}
+
+	/**
+	 * Reads totals written by write().
+	 * @param in the input
+	 * @return the totals
+	 */
+	public static TournamentStats read(DataInput in) throws IOException {
+		int seats = in.readInt();
+		if (seats <= 0 || seats > 64) {
+			throw new IOException("Bad seat count " + seats);
+		}
+		TournamentStats stats = new TournamentStats(seats);
+		stats.games = in.readLong();
+		for (int i = 0; i < seats; i++) {
+			stats.scoreTotals[i] = in.readLong();
+			stats.wins[i] = in.readLong();
+			stats.hands[i] = in.readLong();
+			stats.handsSet[i] = in.readLong();
+			stats.tricksMissed[i] = in.readLong();
+		}
+		return stats;
+	}
+
+	public long getGames() {
+		return games;
+	}
+
+	public int getSeats() {
+		return scoreTotals.length;
+	}
+
+	public long getScoreTotal(int seat) {
+		return scoreTotals[seat];
+	}
+
+	public double getAverageScore(int seat) {
+		return games == 0 ? 0 : (double) scoreTotals[seat] / games;
+	}
+
+	public double getWinRate(int seat) {
+		return games == 0 ? 0 : (double) wins[seat] / games;
+	}
+
+	/**
+	 * @param seat the seat
+	 * @return the fraction of hands where the seat missed its bet
+	 */
+	public double getSetRate(int seat) {
+		return hands[seat] == 0 ? 0 : (double) handsSet[seat] / hands[seat];
+	}
+
+	/**
+	 * @param seat the seat
+	 * @return the average number of tricks a bid was off by
+	 */
+	public double getBidError(int seat) {
+		return hands[seat] == 0 ? 0 : (double) tricksMissed[seat] / hands[seat];
+	}
+
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(games).append(" games\n");
+		for (int i = 0; i < scoreTotals.length; i++) {
+			sb.append(String.format("seat %d: avg score %7.2f  wins %5.1f%%  set %5.1f%%  bid error %.3f%n",
+					i, getAverageScore(i), getWinRate(i) * 100, getSetRate(i) * 100, getBidError(i)));
+		}
+		return sb.toString();
+	}
+}
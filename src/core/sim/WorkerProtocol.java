@@ -0,0 +1,42 @@
+package core.sim;
+
+/**
+ * The messages passed between a SelfPlayCoordinator and its
+ * SelfPlayWorkers. Each message is a tag byte followed by its fields,
+ * written with DataOutputStream. Only game numbers go out and only
+ * totals come back, so the traffic is a few hundred bytes per batch.
+ *
+ * Coordinator to worker:
+ *   ASSIGN seed first end   play games first to end - 1 of the seed
+ *   STEAL  end              give up the games from end on, if not yet started
+ *   QUIT                    exit
+ *
+ * Worker to coordinator:
+ *   HELLO                   sent once on connecting
+ *   RESULT first count stats  a finished batch, see TournamentStats.write
+ *   TRIMMED end             the worker now stops at end, in answer to STEAL
+ *
+ * A worker has finished its range once results up to its end are back,
+ * so it never needs to say it is idle.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+final class WorkerProtocol {
+
+	static final int MAGIC = 0x4F485750;
+
+	static final byte ASSIGN = 1;
+	static final byte STEAL = 2;
+	static final byte QUIT = 3;
+
+	static final byte HELLO = 10;
+	static final byte RESULT = 11;
+	static final byte TRIMMED = 12;
+
+	// games a worker plays between reports, and so the smallest range worth stealing
+	static final int BATCH = 16;
+
+	private WorkerProtocol() {
+	}
+}
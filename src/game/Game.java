@@ -9,6 +9,7 @@ import game.gameState.GameStateManager;
 import game.main.Main;
 import game.main.MainCanvas;
 import util.FrameRateCounter;
+import util.GameClock;
 import util.input.Keyboard;
 import util.input.Mouse;
 
@@ -79,7 +80,8 @@ public class Game {
 			
 			// initialize the FPS counter
 			fpsCounter = new FrameRateCounter();
-			fpsCounter.initialize();
+			// frames are counted in real time, whatever speed a table's clock runs at
+			fpsCounter.initialize(GameClock.SYSTEM);
 			
 			// init play music flag
 			playMusic = false;
@@ -8,6 +8,7 @@ import java.awt.image.BufferedImage;
 
 import javax.imageio.ImageIO;
 
+import core.GameContext;
 import core.RoundKeeper;
 import core.card.Deck;
 import core.player.ComputerPlayer;
@@ -15,7 +16,9 @@ import core.player.HumanPlayer;
 import core.player.PlayerQueue;
 import game.Game;
 import game.main.Main;
+import game.main.MainCanvas;
 import util.JukeBox;
+import util.ScaledClock;
 import util.input.Keyboard;
 import util.input.Mouse;
 
@@ -32,17 +35,23 @@ public class PlayState extends GameState {
 	private static Keyboard k;
 	private static Mouse m;
 
+	// the table being played
+	private GameContext context;
+
+	// the table's clock, sped up with F to watch the computer players
+	private ScaledClock clock;
+	private static final double MAX_SPEED = 32;
+
 	// player objects
-	private static HumanPlayer user;
-	private static PlayerQueue players;
+	private HumanPlayer user;
+	private PlayerQueue players;
 
 	// round keeper
-	private static RoundKeeper round;
+	private RoundKeeper round;
 
 	// images
 	private static BufferedImage tableImage;
 	private static BufferedImage deckImage;
-	public static BufferedImage topCardImage;
 	
 	// playbox
 	private Rectangle playBox = new Rectangle(150, 100, 300, 150);
@@ -53,14 +62,19 @@ public class PlayState extends GameState {
 
 	public void init() {
 
+		// initialize the table
+		context = new GameContext();
+		clock = new ScaledClock();
+		context.setClock(clock);
+
 		// initialize players
 		HumanPlayer player = new HumanPlayer("Player", 0);
-		PlayState.user = player;
+		user = player;
 		ComputerPlayer[] AI = new ComputerPlayer[3];
 		AI[0] = new ComputerPlayer("Tom", 1);
 		AI[1] = new ComputerPlayer("Max", 2);
 		AI[2] = new ComputerPlayer("Dan", 3);
-		players = new PlayerQueue(player, AI);
+		players = new PlayerQueue(context, player, AI);
 		players.shuffle();
 
 		// load images and music
@@ -76,7 +90,7 @@ public class PlayState extends GameState {
 		}
 
 		//initialize the round
-		round = new RoundKeeper(players);
+		round = new RoundKeeper(context);
 	}
 
 	public void update() {
@@ -94,10 +108,6 @@ public class PlayState extends GameState {
 		return tableImage.getWidth();
 	}
 
-	public void setTopCardImage(BufferedImage topCardImage) {
-		PlayState.topCardImage = topCardImage;
-	}
-
 	public void draw(Graphics g) {
 		// draw playing table
 		g.drawImage(tableImage, 0, 0, null);
@@ -105,7 +115,7 @@ public class PlayState extends GameState {
 		// draw deck with top card
 		if (!round.isDealingCards()) {
 			g.drawImage(deckImage, Deck.DECK_X, Deck.DECK_Y, null);
-			g.drawImage(topCardImage, Deck.DECK_X, Deck.DECK_Y, null);
+			g.drawImage(Deck.getCardImage(context.getTopCard().getId()), Deck.DECK_X, Deck.DECK_Y, null);
 		}
 		// draw cards in hand
 		players.drawCards(g);
@@ -134,6 +144,11 @@ public class PlayState extends GameState {
 			round.drawGameResults(g);
 		}
 		
+		if (clock.getSpeed() > 1) {
+			g.setColor(Color.BLACK);
+			g.drawString(String.format("x%.0f", clock.getSpeed()), 5, MainCanvas.SCREEN_H - 25);
+		}
+		
 		if (Main.DEBUG) { g.drawRect(playBox.x, playBox.y, playBox.width, playBox.height); }
 	}
 
@@ -141,6 +156,12 @@ public class PlayState extends GameState {
 		k = Game.pollKeyboard();
 		m = Game.pollMouse();
 
+		// F doubles the game speed, back to normal after the fastest
+		if (k.keyDownOnce(KeyEvent.VK_F)) {
+			double speed = clock.getSpeed() * 2;
+			clock.setSpeed(speed > MAX_SPEED ? 1 : speed);
+		}
+
 		// if dealing cards
 		if (round.isDealingCards()) {
 			if (k.keyDownOnce(KeyEvent.VK_ENTER) || m.buttonDownOnce(1)) {
@@ -6,6 +6,8 @@ import java.util.Objects;
 import javax.swing.ImageIcon;
 import javax.swing.JFrame;
 
+import core.ai.BidTable;
+
 /**
  * Class which contains the main method of the game.
  * 
@@ -41,6 +43,8 @@ public class Main extends JFrame {
 	public static final String VERSION = "v1.0.5";
 
 	public static void main(String[] args) {
+		// read the bid table now rather than at the first bid
+		BidTable.getDefault();
 		final Main main = new Main();
 		EventQueue.invokeLater(main::launch);
 	}
@@ -9,6 +9,7 @@ import java.awt.Font;
  */
 public class FrameRateCounter {
 	   
+	   private GameClock clock = GameClock.SYSTEM;
 	   private String frameRate;
 	   private long lastTime;
 	   private long delta;
@@ -16,13 +17,22 @@ public class FrameRateCounter {
 	   private Font font;
 
 	   public void initialize() {
-	      lastTime = System.currentTimeMillis();
+	      initialize(GameClock.SYSTEM);
+	   }
+	   
+	   /**
+	    * Starts counting frames against the given clock.
+	    * @param clock the clock
+	    */
+	   public void initialize(GameClock clock) {
+	      this.clock = clock;
+	      lastTime = clock.millis();
 	      frameRate = "FPS 0";
 	      font = new Font("Monospaced", Font.BOLD, 12);
 	   }
 	   
 	   public void calculateFPS() {
-	      long current = System.currentTimeMillis();
+	      long current = clock.millis();
 	      delta += current - lastTime;
 	      lastTime = current;
 	      frameCount++;
@@ -0,0 +1,31 @@
+package util;
+
+/**
+ * The time every game timer reads. Tables normally run on the system
+ * clock, but a table can be given a scaled clock to watch computer
+ * players at speed, or a manual clock so a test decides when time passes.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public interface GameClock {
+
+	/**
+	 * The system clock. It never goes backwards, even if the time of day is changed.
+	 */
+	GameClock SYSTEM = () -> System.nanoTime() / 1000000L;
+
+	/**
+	 * @return the current time in milliseconds, from an arbitrary start
+	 */
+	long millis();
+
+	/**
+	 * Waits until the given time has passed on this clock.
+	 * @param millis the time to wait
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	default void sleep(long millis) throws InterruptedException {
+		Thread.sleep(millis);
+	}
+}
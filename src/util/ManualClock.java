@@ -0,0 +1,40 @@
+package util;
+
+/**
+ * A clock that only moves when told to, so timed game logic can be
+ * stepped through deterministically. Sleeping on it moves it forward
+ * rather than waiting.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class ManualClock implements GameClock {
+
+	private volatile long now;
+
+	@Override
+	public long millis() {
+		return now;
+	}
+
+	@Override
+	public synchronized void sleep(long millis) {
+		now += millis;
+	}
+
+	/**
+	 * Moves the clock forward.
+	 * @param millis the time to add
+	 */
+	public synchronized void advance(long millis) {
+		now += millis;
+	}
+
+	/**
+	 * Sets the clock to a given time.
+	 * @param millis the time
+	 */
+	public synchronized void set(long millis) {
+		now = millis;
+	}
+}
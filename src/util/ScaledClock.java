@@ -0,0 +1,76 @@
+package util;
+
+/**
+ * A clock that runs faster or slower than the system clock. The speed can
+ * be changed at any time without the time jumping.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class ScaledClock implements GameClock {
+
+	// the shortest real sleep for any wait
+	private static final long MIN_SLEEP_NANOS = 1000000;
+
+	// the system time and the scaled time when the speed last changed
+	private long baseSystem;
+	private double baseScaled;
+	private double speed;
+
+	/**
+	 * Constructor for a clock running at normal speed.
+	 */
+	public ScaledClock() {
+		this(1);
+	}
+
+	/**
+	 * Constructor
+	 * @param speed how many times faster than the system clock to run
+	 */
+	public ScaledClock(double speed) {
+		if (speed <= 0) {
+			throw new IllegalArgumentException("speed must be positive");
+		}
+		this.baseSystem = GameClock.SYSTEM.millis();
+		this.speed = speed;
+	}
+
+	@Override
+	public synchronized long millis() {
+		return (long) (baseScaled + (GameClock.SYSTEM.millis() - baseSystem) * speed);
+	}
+
+	/**
+	 * Sleeps for a time on this clock, rounded up to the next nanosecond of
+	 * real time. Any wait at all sleeps for at least a millisecond, so a
+	 * loop of short sleeps at a high speed never spins.
+	 * @param millis the time to sleep, on this clock
+	 */
+	@Override
+	public void sleep(long millis) throws InterruptedException {
+		if (millis <= 0) {
+			return;
+		}
+		long nanos = Math.max(MIN_SLEEP_NANOS, (long) Math.ceil(millis * 1.0E6 / getSpeed()));
+		Thread.sleep(nanos / 1000000, (int) (nanos % 1000000));
+	}
+
+	public synchronized double getSpeed() {
+		return speed;
+	}
+
+	/**
+	 * Changes the speed from now on.
+	 * @param speed how many times faster than the system clock to run
+	 */
+	public synchronized void setSpeed(double speed) {
+		if (speed <= 0) {
+			throw new IllegalArgumentException("speed must be positive");
+		}
+		long now = GameClock.SYSTEM.millis();
+		baseScaled += (now - baseSystem) * this.speed;
+		baseSystem = now;
+		this.speed = speed;
+	}
+}
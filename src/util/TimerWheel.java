@@ -0,0 +1,183 @@
+package util;
+
+import java.util.function.Consumer;
+
+/**
+ * A hashed timer wheel. Deadlines are rounded up to a tick and hashed
+ * into a ring of slots by tick number, so scheduling and cancelling take
+ * constant time, and advancing the wheel only looks at the slots for the
+ * ticks that have passed. Deadlines more than one turn of the wheel away
+ * wait in their slot until their turn comes round.
+ *
+ * Not thread safe; one thread should own the wheel.
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ * @param <T> the kind of item scheduled
+ */
+public class TimerWheel<T> {
+
+	/**
+	 * A scheduled item, which can be cancelled until it fires.
+	 */
+	public static final class Entry<T> {
+		private final T item;
+		private final long tick;
+		private Entry<T> prev;
+		private Entry<T> next;
+		private int slot = -1;
+
+		private Entry(T item, long tick) {
+			this.item = item;
+			this.tick = tick;
+		}
+
+		public T getItem() {
+			return item;
+		}
+
+		/**
+		 * @return true until the entry fires or is cancelled
+		 */
+		public boolean isPending() {
+			return slot >= 0;
+		}
+	}
+
+	private final long tickMillis;
+	private final Entry<T>[] slots;
+	private final int mask;
+
+	// the next tick to process
+	private long currentTick;
+	private int size;
+
+	// true while advance is firing items
+	private boolean advancing;
+
+	/**
+	 * Constructor
+	 * @param slots the number of slots, rounded up to a power of two
+	 * @param tickMillis the length of a tick
+	 * @param startMillis the time the wheel starts at
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public TimerWheel(int slots, long tickMillis, long startMillis) {
+		if (tickMillis <= 0) {
+			throw new IllegalArgumentException("tickMillis must be positive");
+		}
+		int n = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+		this.slots = (Entry<T>[]) new Entry[n];
+		this.mask = n - 1;
+		this.tickMillis = tickMillis;
+		this.currentTick = startMillis / tickMillis;
+	}
+
+	/**
+	 * Schedules an item. Deadlines already passed fire on the next advance.
+	 * An item scheduled by a callback during advance fires no sooner than
+	 * the tick after the one being fired, even if it is already due.
+	 * @param item the item
+	 * @param deadlineMillis the time it is due
+	 * @return the entry, for cancelling
+	 */
+	public Entry<T> schedule(T item, long deadlineMillis) {
+		// round up, so an item never fires before its deadline
+		// during an advance the current slot is being scanned, so the earliest is the next tick
+		long earliest = advancing ? currentTick + 1 : currentTick;
+		long tick = Math.max((deadlineMillis + tickMillis - 1) / tickMillis, earliest);
+		Entry<T> e = new Entry<T>(item, tick);
+		int slot = (int) (tick & mask);
+		e.slot = slot;
+		e.next = slots[slot];
+		if (e.next != null) {
+			e.next.prev = e;
+		}
+		slots[slot] = e;
+		size++;
+		return e;
+	}
+
+	/**
+	 * Cancels an entry that has not fired yet.
+	 * @param e the entry
+	 * @return true if it was cancelled, false if it had already fired or been cancelled
+	 */
+	public boolean cancel(Entry<T> e) {
+		if (!e.isPending()) {
+			return false;
+		}
+		unlink(e);
+		return true;
+	}
+
+	private void unlink(Entry<T> e) {
+		if (e.prev != null) {
+			e.prev.next = e.next;
+		} else {
+			slots[e.slot] = e.next;
+		}
+		if (e.next != null) {
+			e.next.prev = e.prev;
+		}
+		e.prev = null;
+		e.next = null;
+		e.slot = -1;
+		size--;
+	}
+
+	/**
+	 * Fires every item due by the given time, in tick order.
+	 * @param nowMillis the current time
+	 * @param expired called with each item that is due
+	 * @return the number of items fired
+	 */
+	public int advance(long nowMillis, Consumer<? super T> expired) {
+		long nowTick = nowMillis / tickMillis;
+		int fired = 0;
+		// a wheel with nothing in it can skip straight to now
+		if (size == 0 && nowTick >= currentTick) {
+			currentTick = nowTick + 1;
+			return 0;
+		}
+		advancing = true;
+		try {
+			while (currentTick <= nowTick) {
+				int slot = (int) (currentTick & mask);
+				Entry<T> e = slots[slot];
+				while (e != null) {
+					Entry<T> next = e.next;
+					if (e.tick <= currentTick) {
+						unlink(e);
+						expired.accept(e.item);
+						fired++;
+						// the callback may have cancelled the next entry, so start the slot again
+						if (next != null && !next.isPending()) {
+							next = slots[slot];
+						}
+					}
+					e = next;
+				}
+				currentTick++;
+				if (size == 0) {
+					currentTick = Math.max(currentTick, nowTick + 1);
+				}
+			}
+		} finally {
+			advancing = false;
+		}
+		return fired;
+	}
+
+	/**
+	 * @return the number of items waiting
+	 */
+	public int size() {
+		return size;
+	}
+
+	public long getTickMillis() {
+		return tickMillis;
+	}
+}